@@ -1,7 +0,0 @@
-public class Cell {
-    public boolean isMine = false;
-    public boolean isRevealed = false;
-    public boolean isFlagged = false;
-    public int adjacentMines = 0;
-}
-
@@ -0,0 +1,20 @@
+package minesweeper;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+// Runs the benchmarks with the usual JMH command line and the GC profiler
+// always on, so every result carries its allocation rate (gc.alloc.rate.norm).
+//
+//   java -jar benchmarks/target/benchmarks.jar [jmh options] [regexp]
+//   e.g. -p size=9x9,16x30 -rf json -rff baseline.json BoardLogic
+public class BenchmarkMain {
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
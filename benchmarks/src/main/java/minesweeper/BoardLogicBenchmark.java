@@ -0,0 +1,65 @@
+package minesweeper;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+// BoardLogic construction (mine placement plus adjacency), reveal of a single
+// number cell and of the largest opening, and the win check.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardLogicBenchmark {
+    // An untouched board for every call, since a reveal cannot be repeated:
+    // one board per trial, with each call's reveal hidden again afterwards.
+    // That costs what the reveal changed and allocates nothing, so it neither
+    // swamps the run nor shows in gc.alloc.rate.norm, unlike building a new
+    // board per call.
+    @State(Scope.Thread)
+    public static class Fresh {
+        BoardLogic board;
+
+        @Setup(Level.Trial)
+        public void setup(Layout layout) {
+            board = new BoardLogic(layout.rows, layout.cols, layout.mines, layout.seed);
+        }
+
+        @TearDown(Level.Invocation)
+        public void hide() {
+            board.hideChanged();
+        }
+    }
+
+    // a game in progress: the largest opening has been revealed
+    @State(Scope.Thread)
+    public static class Played {
+        BoardLogic board;
+
+        @Setup(Level.Trial)
+        public void setup(Layout layout) {
+            board = new BoardLogic(layout.rows, layout.cols, layout.mines, layout.seed);
+            board.reveal(layout.cascadeCell / layout.cols, layout.cascadeCell % layout.cols);
+        }
+    }
+
+    @Benchmark
+    public BoardLogic construct(Layout layout) {
+        return new BoardLogic(layout.rows, layout.cols, layout.mines, layout.seed);
+    }
+
+    @Benchmark
+    public int revealSingle(Layout layout, Fresh fresh) {
+        return fresh.board.reveal(layout.numberCell / layout.cols, layout.numberCell % layout.cols);
+    }
+
+    @Benchmark
+    public int revealCascade(Layout layout, Fresh fresh) {
+        return fresh.board.reveal(layout.cascadeCell / layout.cols, layout.cascadeCell % layout.cols);
+    }
+
+    @Benchmark
+    public boolean isGameWon(Played played) {
+        return played.board.isGameWon();
+    }
+}
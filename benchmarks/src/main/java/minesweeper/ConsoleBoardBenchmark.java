@@ -0,0 +1,71 @@
+package minesweeper;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+// The console Board counterparts of BoardLogicBenchmark, on the same layouts.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConsoleBoardBenchmark {
+    // one board per trial, as in BoardLogicBenchmark; the cells each reveal
+    // opens come from BoardLogic on the same layout, and are hidden again
+    // after every call
+    @State(Scope.Thread)
+    public static class Fresh {
+        Board board;
+        int[] numberCells, cascadeCells;
+
+        @Setup(Level.Trial)
+        public void setup(Layout layout) {
+            board = new Board(layout.rows, layout.cols, layout.mines, layout.seed);
+            BoardLogic logic = new BoardLogic(layout.rows, layout.cols, layout.mines, layout.seed);
+            logic.reveal(layout.numberCell / layout.cols, layout.numberCell % layout.cols);
+            numberCells = Arrays.copyOf(logic.getChangedCells(), logic.getChangedCount());
+            logic.reveal(layout.cascadeCell / layout.cols, layout.cascadeCell % layout.cols);
+            cascadeCells = Arrays.copyOf(logic.getChangedCells(), logic.getChangedCount());
+        }
+
+        @TearDown(Level.Invocation)
+        public void hide() {
+            board.hide(numberCells, numberCells.length);
+            board.hide(cascadeCells, cascadeCells.length);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Played {
+        Board board;
+
+        @Setup(Level.Trial)
+        public void setup(Layout layout) {
+            board = new Board(layout.rows, layout.cols, layout.mines, layout.seed);
+            board.revealCell(layout.cascadeCell / layout.cols, layout.cascadeCell % layout.cols);
+        }
+    }
+
+    @Benchmark
+    public Board construct(Layout layout) {
+        return new Board(layout.rows, layout.cols, layout.mines, layout.seed);
+    }
+
+    @Benchmark
+    public Board revealSingle(Layout layout, Fresh fresh) {
+        fresh.board.revealCell(layout.numberCell / layout.cols, layout.numberCell % layout.cols);
+        return fresh.board;
+    }
+
+    @Benchmark
+    public Board revealCascade(Layout layout, Fresh fresh) {
+        fresh.board.revealCell(layout.cascadeCell / layout.cols, layout.cascadeCell % layout.cols);
+        return fresh.board;
+    }
+
+    @Benchmark
+    public boolean isWin(Played played) {
+        return played.board.isWin();
+    }
+}
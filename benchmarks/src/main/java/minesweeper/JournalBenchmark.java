@@ -0,0 +1,109 @@
+package minesweeper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+// Recording, reading and replaying one long game: every cell of the board is
+// touched in random order (mines flagged, other cells revealed), with delays
+// drawn from 0-2000 ms. The moves counter reports moves/s; the journal size is
+// printed during setup.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JournalBenchmark {
+    @Param({"16x30", "256x256", "1024x1024"})
+    public String size;
+
+    MoveJournal.Recording recording;
+    Path journalFile, scratchFile;
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Moves {
+        public long moves;
+    }
+
+    @State(Scope.Thread)
+    public static class Fresh {
+        BoardLogic board;
+
+        @Setup(Level.Invocation)
+        public void setup(JournalBenchmark bench) {
+            board = bench.recording.newBoard();
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        String[] parts = size.split("x");
+        int rows = Integer.parseInt(parts[0]), cols = Integer.parseInt(parts[1]), n = rows * cols;
+        BoardLogic board = new BoardLogic(rows, cols, n * 16 / 100, 1);
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++)
+            order[i] = i;
+        SplittableRandom rng = new SplittableRandom(1);
+        for (int i = n - 1; i > 0; i--) {
+            int j = rng.nextInt(i + 1), t = order[i];
+            order[i] = order[j];
+            order[j] = t;
+        }
+
+        journalFile = Files.createTempFile("minesweeper", ".journal");
+        scratchFile = Files.createTempFile("minesweeper-scratch", ".journal");
+        try (MoveJournal journal = MoveJournal.open(journalFile, board)) {
+            for (int i : order) {
+                int r = i / cols, c = i % cols;
+                if (board.isMine(r, c)) {
+                    journal.record(MoveJournal.Action.FLAG, i, rng.nextInt(2000));
+                    board.toggleFlag(r, c);
+                } else if (!board.isRevealed(r, c)) {
+                    journal.record(MoveJournal.Action.REVEAL, i, rng.nextInt(2000));
+                    board.reveal(r, c);
+                }
+            }
+        }
+        recording = MoveJournal.read(journalFile);
+        System.out.printf("%n%s: %d moves, journal %d bytes (%.2f bytes/move)%n", size, recording.getMoves(),
+                recording.getBytes(), (double) recording.getBytes() / recording.getMoves());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(journalFile);
+        Files.deleteIfExists(scratchFile);
+    }
+
+    @Benchmark
+    public BoardLogic replay(Fresh fresh, Moves moves) {
+        for (int k = 0; k < recording.getMoves(); k++)
+            recording.apply(fresh.board, k);
+        moves.moves += recording.getMoves();
+        return fresh.board;
+    }
+
+    @Benchmark
+    public MoveJournal.Recording read(Moves moves) throws IOException {
+        MoveJournal.Recording read = MoveJournal.read(journalFile);
+        moves.moves += read.getMoves();
+        return read;
+    }
+
+    // every move is written through to the file, as the game does
+    @Benchmark
+    public void record(Moves moves) throws IOException {
+        Files.deleteIfExists(scratchFile);
+        try (MoveJournal journal = MoveJournal.open(scratchFile, recording.rows, recording.cols,
+                recording.mines, recording.seed)) {
+            for (int k = 0; k < recording.getMoves(); k++)
+                journal.record(recording.getAction(k), recording.getCell(k), recording.getDelayMillis(k));
+        }
+        moves.moves += recording.getMoves();
+    }
+}
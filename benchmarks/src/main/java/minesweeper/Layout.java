@@ -0,0 +1,56 @@
+package minesweeper;
+
+import org.openjdk.jmh.annotations.*;
+
+// Board shape shared by the engine and console benchmarks, from the Easy board
+// up to 4096x4096 at the Easy, Medium and Hard mine densities. The seed is
+// fixed so every run measures the same layout, and the console Board builds
+// the same layout as BoardLogic from it.
+@State(Scope.Benchmark)
+public class Layout {
+    @Param({"9x9", "16x16", "16x30", "256x256", "1024x1024", "4096x4096"})
+    public String size;
+
+    @Param({"0.12", "0.16", "0.21"})
+    public double density;
+
+    int rows, cols, mines;
+    long seed;
+    int numberCell;  // a safe cell with a mine next to it, row * cols + col
+    int cascadeCell; // the zero cell with the largest opening
+    int cascadeSize;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        String[] parts = size.split("x");
+        rows = Integer.parseInt(parts[0]);
+        cols = Integer.parseInt(parts[1]);
+        mines = Math.max(1, (int) Math.round(rows * cols * density));
+
+        // the first seed that has both kinds of cell
+        for (seed = 1; ; seed++) {
+            BoardLogic board = new BoardLogic(rows, cols, mines, seed);
+            numberCell = -1;
+            cascadeCell = -1;
+            cascadeSize = 0;
+            for (int i = 0; i < rows * cols; i++) {
+                int r = i / cols, c = i % cols;
+                if (board.isMine(r, c) || board.isRevealed(r, c))
+                    continue;
+                if (board.getAdjacentMines(r, c) > 0) {
+                    if (numberCell < 0)
+                        numberCell = i;
+                    continue;
+                }
+                // each opening is revealed once, so this pass stays linear
+                int opened = board.reveal(r, c);
+                if (opened > cascadeSize) {
+                    cascadeCell = i;
+                    cascadeSize = opened;
+                }
+            }
+            if (numberCell >= 0 && cascadeCell >= 0)
+                return;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package minesweeper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+// Startup load of a results file holding a given number of games across the
+// three standard sizes, and the full cost of recording one result (append and
+// index update on the background thread). Loads read a file written during
+// setup, so they measure the page cache, not the disk.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LeaderboardBenchmark {
+    private static final int[][] SIZES = {{9, 9, 10}, {16, 16, 40}, {16, 30, 99}};
+
+    @Param({"1000", "100000", "1000000"})
+    public int games;
+
+    Path loadFile, recordFile;
+    Leaderboard recording;
+    SplittableRandom rng = new SplittableRandom(1);
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException, ExecutionException, InterruptedException {
+        loadFile = Files.createTempFile("minesweeper-results", ".bin");
+        Files.delete(loadFile);
+        Leaderboard writer = new Leaderboard(loadFile);
+        for (int i = 0; i < games; i++) {
+            int[] size = SIZES[rng.nextInt(SIZES.length)];
+            writer.record(size[0], size[1], size[2], rng.nextInt(3) == 0, 1000 + rng.nextInt(1_000_000));
+        }
+        writer.close();
+        recordFile = Files.createTempFile("minesweeper-record", ".bin");
+        Files.delete(recordFile);
+        recording = new Leaderboard(recordFile);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        recording.close();
+        Files.deleteIfExists(loadFile);
+        Files.deleteIfExists(recordFile);
+    }
+
+    @Benchmark
+    public Leaderboard.Stats load() {
+        Leaderboard leaderboard = new Leaderboard(loadFile);
+        leaderboard.sync();
+        Leaderboard.Stats stats = leaderboard.getStats(16, 30, 99);
+        leaderboard.close();
+        return stats;
+    }
+
+    @Benchmark
+    public int record() throws ExecutionException, InterruptedException {
+        return recording.record(16, 30, 99, true, 1000 + rng.nextInt(1_000_000)).get();
+    }
+}
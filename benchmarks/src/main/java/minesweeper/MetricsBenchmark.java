@@ -0,0 +1,64 @@
+package minesweeper;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+// Cost of the metrics recorders, alone and on the cheapest instrumented engine
+// calls: a reveal that returns at once (the cell is already revealed) and the
+// win check. Compare with a run using -jvmArgsAppend -Dminesweeper.metrics=false.
+// The threads variant shows the recorders under contention.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MetricsBenchmark {
+    BoardLogic board;
+    int row, col;
+    long value;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        board = new BoardLogic(16, 30, 99, 42);
+        for (int i = 0; i < 16 * 30; i++) {
+            if (!board.isMine(i / 30, i % 30)) {
+                row = i / 30;
+                col = i % 30;
+                board.reveal(row, col);
+                break;
+            }
+        }
+    }
+
+    @Benchmark
+    public void histogramRecord() {
+        Metrics.REVEAL_CELLS.record(++value & 1023);
+    }
+
+    @Benchmark
+    public void histogramRecordSince() {
+        Metrics.REVEAL.recordSince(Metrics.start());
+    }
+
+    @Benchmark
+    public void counterIncrement() {
+        Metrics.WIN_CHECKS.increment();
+    }
+
+    @Benchmark
+    public int revealRevealedCell() {
+        return board.reveal(row, col);
+    }
+
+    @Benchmark
+    public boolean isGameWon() {
+        return board.isGameWon();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void histogramRecordThreads() {
+        Metrics.REVEAL_CELLS.record(++value & 1023);
+    }
+}
@@ -0,0 +1,58 @@
+package minesweeper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+// Save and load of a game in progress, up to 100 million cells. Loads read a
+// file written during setup, so they measure the page cache, not the disk.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+@State(Scope.Benchmark)
+public class SavedGameBenchmark {
+    @Param({"16x30", "1024x1024", "4096x4096", "10000x10000"})
+    public String size;
+
+    BoardLogic board;
+    Path saveFile, loadFile;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        String[] parts = size.split("x");
+        int rows = Integer.parseInt(parts[0]), cols = Integer.parseInt(parts[1]);
+        board = new BoardLogic(rows, cols, (int) (rows * (long) cols * 16 / 100), 1);
+        // a scattered mix of revealed cells and flags
+        for (int i = 0; i < rows * cols; i += 97) {
+            int r = i / cols, c = i % cols;
+            if (board.isMine(r, c))
+                board.toggleFlag(r, c);
+            else
+                board.reveal(r, c);
+        }
+        saveFile = Files.createTempFile("minesweeper-save", ".bin");
+        loadFile = Files.createTempFile("minesweeper-load", ".bin");
+        SavedGame.save(loadFile, board, 12_345);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(saveFile);
+        Files.deleteIfExists(loadFile);
+    }
+
+    @Benchmark
+    public Path save() throws IOException {
+        SavedGame.save(saveFile, board, 12_345);
+        return saveFile;
+    }
+
+    @Benchmark
+    public SavedGame load() throws IOException {
+        return SavedGame.load(loadFile);
+    }
+}
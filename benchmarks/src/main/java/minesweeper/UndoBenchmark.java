@@ -0,0 +1,57 @@
+package minesweeper;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+// Undo and redo of the largest opening, which should cost in proportion to
+// the opening rather than the board, and the reveal cost of keeping history.
+// The history's memory after the opening is printed during setup.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UndoBenchmark {
+    @State(Scope.Thread)
+    public static class Opened {
+        BoardLogic board;
+
+        @Setup(Level.Trial)
+        public void setup(Layout layout) {
+            board = new BoardLogic(layout.rows, layout.cols, layout.mines, layout.seed);
+            board.setHistoryLimit(BoardLogic.HISTORY_MOVES, BoardLogic.HISTORY_CELLS);
+            board.reveal(layout.cascadeCell / layout.cols, layout.cascadeCell % layout.cols);
+            System.out.printf("%n%s: opening of %d cells, history %d bytes%n",
+                    layout.size, layout.cascadeSize, board.getHistoryBytes());
+        }
+    }
+
+    // one board per trial; each call's reveal is undone afterwards, which the
+    // next reveal then drops from the redo list as a real move would
+    @State(Scope.Thread)
+    public static class Fresh {
+        BoardLogic board;
+
+        @Setup(Level.Trial)
+        public void setup(Layout layout) {
+            board = new BoardLogic(layout.rows, layout.cols, layout.mines, layout.seed);
+            board.setHistoryLimit(BoardLogic.HISTORY_MOVES, BoardLogic.HISTORY_CELLS);
+        }
+
+        @TearDown(Level.Invocation)
+        public void undo() {
+            board.undo();
+        }
+    }
+
+    // leaves the board as it found it
+    @Benchmark
+    public int undoRedoCascade(Opened opened) {
+        return opened.board.undo() + opened.board.redo();
+    }
+
+    @Benchmark
+    public int revealCascadeWithHistory(Layout layout, Fresh fresh) {
+        return fresh.board.reveal(layout.cascadeCell / layout.cols, layout.cascadeCell % layout.cols);
+    }
+}
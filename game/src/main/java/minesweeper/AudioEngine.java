@@ -0,0 +1,170 @@
+package minesweeper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import javax.sound.sampled.*;
+
+// Process-wide audio. Effects are decoded once into memory and played from a
+// small pool of pre-opened clips on a background thread, so the EDT never
+// touches a line; the theme is streamed through a SourceDataLine instead of
+// being loaded whole into a Clip.
+public class AudioEngine {
+    public enum Effect {
+        BOMB("assets/sound/break-boom-fx-240235.wav");
+
+        private final String path;
+
+        Effect(String path) {
+            this.path = path;
+        }
+    }
+
+    private static final String THEME_PATH = "assets/sound/pixel-dreams-259187.wav";
+    private static final int VOICES_PER_EFFECT = 3;
+    private static final float LOWERED_THEME_GAIN = -15.0f; // decibels
+
+    private static AudioEngine instance;
+
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "audio");
+        t.setDaemon(true);
+        return t;
+    });
+    private final Map<Effect, Clip[]> voices = new EnumMap<>(Effect.class); // worker thread only
+
+    private volatile Thread themeThread; // the streaming thread exits once it is no longer this
+    private volatile SourceDataLine themeLine;
+    private volatile float themeGain;
+
+    private AudioEngine() {
+        worker.execute(() -> {
+            for (Effect effect : Effect.values())
+                voices(effect);
+        });
+    }
+
+    public static synchronized AudioEngine get() {
+        if (instance == null)
+            instance = new AudioEngine();
+        return instance;
+    }
+
+    public void play(Effect effect) {
+        long requested = Metrics.start();
+        worker.execute(() -> {
+            Clip[] pool = voices(effect);
+            if (pool.length == 0)
+                return;
+            // take an idle voice, or restart the first one if all are busy
+            Clip clip = pool[0];
+            for (Clip voice : pool) {
+                if (!voice.isActive()) {
+                    clip = voice;
+                    break;
+                }
+            }
+            clip.stop();
+            clip.setFramePosition(0);
+            clip.start();
+            Metrics.SOUND_PLAY.recordSince(requested);
+        });
+    }
+
+    public synchronized void startTheme() {
+        if (themeThread != null)
+            return;
+        themeThread = new Thread(this::streamTheme, "theme");
+        themeThread.setDaemon(true);
+        themeThread.start();
+    }
+
+    public synchronized void stopTheme() {
+        themeThread = null;
+    }
+
+    public void lowerThemeVolume() {
+        setThemeGain(LOWERED_THEME_GAIN);
+    }
+
+    public void restoreThemeVolume() {
+        setThemeGain(0.0f);
+    }
+
+    public void setThemeGain(float decibels) {
+        themeGain = decibels;
+        applyThemeGain(themeLine);
+    }
+
+    private void applyThemeGain(SourceDataLine line) {
+        if (line == null || !line.isControlSupported(FloatControl.Type.MASTER_GAIN))
+            return;
+        FloatControl gain = (FloatControl) line.getControl(FloatControl.Type.MASTER_GAIN);
+        gain.setValue(Math.max(gain.getMinimum(), Math.min(gain.getMaximum(), themeGain)));
+    }
+
+    // loops the theme file until stopTheme; only one buffer is held in memory
+    private void streamTheme() {
+        Thread self = Thread.currentThread();
+        SourceDataLine line = null;
+        byte[] buffer = null;
+        try {
+            while (themeThread == self) {
+                try (AudioInputStream in = AudioSystem.getAudioInputStream(new File(THEME_PATH))) {
+                    AudioFormat format = in.getFormat();
+                    if (line == null) {
+                        line = AudioSystem.getSourceDataLine(format);
+                        line.open(format);
+                        themeLine = line;
+                        applyThemeGain(line);
+                        line.start();
+                        buffer = new byte[line.getBufferSize() / 4 / format.getFrameSize() * format.getFrameSize()];
+                    }
+                    int n;
+                    while (themeThread == self && (n = in.read(buffer)) > 0)
+                        line.write(buffer, 0, n);
+                }
+            }
+        } catch (UnsupportedAudioFileException | IOException | LineUnavailableException ex) {
+            System.err.println("Error playing theme music: " + ex.getMessage());
+        } finally {
+            if (themeLine == line)
+                themeLine = null;
+            if (line != null) {
+                line.stop();
+                line.close();
+            }
+        }
+    }
+
+    private Clip[] voices(Effect effect) {
+        Clip[] pool = voices.get(effect);
+        if (pool != null)
+            return pool;
+        long start = Metrics.start();
+        pool = new Clip[VOICES_PER_EFFECT];
+        try (AudioInputStream in = AudioSystem.getAudioInputStream(new File(effect.path))) {
+            AudioFormat format = in.getFormat();
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            in.transferTo(bytes);
+            byte[] data = bytes.toByteArray();
+            for (int i = 0; i < pool.length; i++) {
+                pool[i] = AudioSystem.getClip();
+                pool[i].open(format, data, 0, data.length);
+            }
+            Metrics.SOUND_LOAD.recordSince(start);
+        } catch (UnsupportedAudioFileException | IOException | LineUnavailableException | IllegalArgumentException e) {
+            System.err.println("Could not load sound " + effect.path + ": " + e.getMessage());
+            for (Clip clip : pool)
+                if (clip != null)
+                    clip.close();
+            pool = new Clip[0];
+        }
+        voices.put(effect, pool);
+        return pool;
+    }
+}
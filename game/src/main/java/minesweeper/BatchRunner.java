@@ -0,0 +1,155 @@
+package minesweeper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+// Drives the console Board from a script: commands stream from a file or
+// stdin through CommandReader and are applied with no rendering in between.
+// Output is plain text meant for other programs:
+//   with --moves, one line per command:  <line> <r|f> <row> <col> <result>
+//     r: cells revealed, or X for a mine;  f: + flagged, - unflagged, 0 no-op
+//     after the game has ended: over
+//   per bad line:                        <line> error <message>
+//   with --board, the final grid, one line per row ('#' hidden, 'F' flag,
+//     '.' empty, '1'-'8' numbers, '*' a revealed mine)
+//   always last, one line of key=value pairs:
+//     state=won|lost|playing moves=.. errors=.. safe_left=.. flags=.. seed=.. elapsed_ms=.. moves_per_s=..
+//
+//   java -cp game/target/classes minesweeper.BatchRunner rows cols mines [--seed N] [--moves] [--board] [file|-]
+public class BatchRunner {
+    private static final int FLUSH_AT = 1 << 16;
+
+    private final Board board;
+    private final OutputStream out;
+    private final boolean perMove;
+    private final StringBuilder text = new StringBuilder(FLUSH_AT + 256);
+    private long moves, errors;
+    private int flags;
+    private long startNanos, endNanos;
+
+    BatchRunner(Board board, OutputStream out, boolean perMove) {
+        this.board = board;
+        this.out = out;
+        this.perMove = perMove;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.err.println("usage: BatchRunner rows cols mines [--seed N] [--moves] [--board] [file|-]");
+            System.exit(2);
+        }
+        int rows = Integer.parseInt(args[0]), cols = Integer.parseInt(args[1]), mines = Integer.parseInt(args[2]);
+        Long seed = null;
+        boolean perMove = false, dumpBoard = false;
+        String file = "-";
+        for (int i = 3; i < args.length; i++) {
+            switch (args[i]) {
+                case "--seed" -> seed = Long.parseLong(args[++i]);
+                case "--moves" -> perMove = true;
+                case "--board" -> dumpBoard = true;
+                default -> file = args[i];
+            }
+        }
+        Board board = seed != null ? new Board(rows, cols, mines, seed) : new Board(rows, cols, mines);
+        try (InputStream in = file.equals("-") ? System.in : Files.newInputStream(Paths.get(file))) {
+            BatchRunner runner = new BatchRunner(board, System.out, perMove);
+            runner.run(in);
+            if (dumpBoard)
+                runner.appendBoard();
+            runner.appendSummary();
+            runner.flush();
+        }
+    }
+
+    long getMoves() {
+        return moves;
+    }
+
+    void run(InputStream in) throws IOException {
+        startNanos = System.nanoTime();
+        CommandReader reader = new CommandReader(in);
+        while (reader.next()) {
+            if (reader.error == null && (reader.row >= board.getRows() || reader.col >= board.getCols()))
+                reader.error = "outside the board";
+            if (reader.error != null) {
+                errors++;
+                text.append(reader.line).append(" error ").append(reader.error).append('\n');
+            } else {
+                moves++;
+                apply(reader);
+            }
+            if (text.length() >= FLUSH_AT)
+                flush();
+        }
+        endNanos = System.nanoTime();
+    }
+
+    private void apply(CommandReader command) {
+        int row = command.row, col = command.col;
+        if (perMove)
+            text.append(command.line).append(' ').append(command.action).append(' ')
+                    .append(row).append(' ').append(col).append(' ');
+        if (board.isGameOver() || board.isWin()) {
+            if (perMove)
+                text.append("over\n");
+            return;
+        }
+        if (command.action == 'r') {
+            int before = board.getSafeCellsRemaining();
+            board.revealCell(row, col);
+            if (perMove) {
+                if (board.isGameOver())
+                    text.append('X');
+                else
+                    text.append(before - board.getSafeCellsRemaining());
+            }
+        } else {
+            char before = board.glyph(row, col);
+            board.flagCell(row, col);
+            char after = board.glyph(row, col);
+            int delta = before == after ? 0 : after == 'F' ? 1 : -1;
+            flags += delta;
+            if (perMove)
+                text.append(delta == 0 ? '0' : delta > 0 ? '+' : '-');
+        }
+        if (perMove)
+            text.append('\n');
+    }
+
+    void appendBoard() throws IOException {
+        for (int r = 0; r < board.getRows(); r++) {
+            for (int c = 0; c < board.getCols(); c++) {
+                char glyph = board.glyph(r, c);
+                text.append(glyph == ' ' ? '.' : glyph);
+            }
+            text.append('\n');
+            if (text.length() >= FLUSH_AT)
+                flush();
+        }
+    }
+
+    void appendSummary() {
+        double seconds = (endNanos - startNanos) / 1e9;
+        String state = board.isGameOver() ? "lost" : board.isWin() ? "won" : "playing";
+        text.append("state=").append(state)
+                .append(" moves=").append(moves)
+                .append(" errors=").append(errors)
+                .append(" safe_left=").append(board.getSafeCellsRemaining())
+                .append(" flags=").append(flags)
+                .append(" seed=").append(board.getSeed())
+                .append(" elapsed_ms=").append(Math.round(seconds * 1000))
+                .append(" moves_per_s=").append(seconds > 0 ? Math.round(moves / seconds) : 0)
+                .append('\n');
+    }
+
+    void flush() throws IOException {
+        byte[] bytes = text.toString().getBytes(StandardCharsets.US_ASCII);
+        out.write(bytes);
+        out.flush();
+        text.setLength(0);
+    }
+}
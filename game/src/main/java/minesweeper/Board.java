@@ -0,0 +1,269 @@
+package minesweeper;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.Scanner;
+
+public class Board {
+    private final int rows;
+    private final int cols;
+    private final int mines;
+    private final long seed;
+    private final char[][] board;
+    private final boolean[][] revealed;
+    private final boolean[][] flagged;
+    private boolean gameOver;
+    private int safeCellsRemaining;
+    private int[] work = new int[64]; // flood fill stack of r * cols + c
+    private MoveJournal journal; // record of the moves played, if one could be opened
+
+    public Board(int rows, int cols, int mines) {
+        this(rows, cols, mines, new SplittableRandom().nextLong());
+    }
+
+    // same seed and size give the same layout as BoardLogic
+    public Board(int rows, int cols, int mines, long seed) {
+        if (mines < 0 || mines > rows * cols)
+            throw new IllegalArgumentException("cannot place " + mines + " mines on " + rows + "x" + cols);
+        this.rows = rows;
+        this.cols = cols;
+        this.mines = mines;
+        this.seed = seed;
+        this.board = new char[rows][cols];
+        this.revealed = new boolean[rows][cols];
+        this.flagged = new boolean[rows][cols];
+        this.gameOver = false;
+        this.safeCellsRemaining = rows * cols - mines;
+        initBoard();
+    }
+
+    private void initBoard() {
+        // Place mines randomly and fill numbers
+        // ...existing code...
+        // Floyd's sampling: one draw per mine regardless of density
+        long start = Metrics.start();
+        SplittableRandom rand = new SplittableRandom(seed);
+        int n = rows * cols;
+        for (int j = n - mines; j < n; j++) {
+            int i = rand.nextInt(j + 1);
+            if (board[i / cols][i % cols] == '*') {
+                i = j;
+            }
+            board[i / cols][i % cols] = '*';
+        }
+        Metrics.PLACE_MINES.recordSince(start);
+
+        start = Metrics.start();
+
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                if (board[r][c] != '*') {
+                    int count = 0;
+                    for (int dr = -1; dr <= 1; dr++) {
+                        for (int dc = -1; dc <= 1; dc++) {
+                            int nr = r + dr, nc = c + dc;
+                            if (nr >= 0 && nr < rows && nc >= 0 && nc < cols && board[nr][nc] == '*') {
+                                count++;
+                            }
+                        }
+                    }
+                    board[r][c] = count == 0 ? ' ' : (char) (count + '0');
+                }
+            }
+        }
+        Metrics.CALCULATE_ADJACENTS.recordSince(start);
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    // the journal replays through BoardLogic, which builds the same layout from
+    // the seed; play() opens one of its own if none is set
+    public void setJournal(MoveJournal journal) {
+        this.journal = journal;
+    }
+
+    public void play(Scanner scanner) {
+        boolean ownJournal = journal == null;
+        if (ownJournal) {
+            try {
+                journal = MoveJournal.open(MoveJournal.fileFor(seed), rows, cols, mines, seed);
+            } catch (IOException e) {
+                System.err.println("Error opening move journal: " + e.getMessage());
+            }
+        }
+        try {
+            playMoves(scanner);
+        } finally {
+            if (ownJournal) closeJournal();
+        }
+    }
+
+    private void playMoves(Scanner scanner) {
+        // Main game loop: draw board, get user input, reveal/flag cells, check win/loss
+        ConsoleRenderer screen = ConsoleRenderer.forTerminal(this);
+        String prompt = "Enter command (r row col | f row col | v row col to scroll): ";
+        String status = "";
+        while (!gameOver) {
+            screen.draw(status, prompt);
+            status = "";
+            if (!scanner.hasNext()) return;
+            String action = scanner.next();
+            if (!scanner.hasNextInt()) {
+                status = "Invalid command.";
+                if (!scanner.hasNextLine()) return; // input ended mid-command
+                scanner.nextLine();
+                continue;
+            }
+            int row = scanner.nextInt();
+            if (!scanner.hasNextInt()) {
+                status = "Invalid command.";
+                if (!scanner.hasNextLine()) return; // input ended mid-command
+                scanner.nextLine();
+                continue;
+            }
+            int col = scanner.nextInt();
+
+            if (row < 0 || row >= rows || col < 0 || col >= cols) {
+                status = "Invalid coordinates.";
+                continue;
+            }
+
+            // only moves that change the board are journaled
+            if (action.equalsIgnoreCase("r")) {
+                if (!revealed[row][col] && !flagged[row][col]) {
+                    record(MoveJournal.Action.REVEAL, row, col);
+                    revealCell(row, col);
+                }
+                screen.follow(row, col);
+            } else if (action.equalsIgnoreCase("f")) {
+                if (!revealed[row][col]) {
+                    record(MoveJournal.Action.FLAG, row, col);
+                    flagCell(row, col);
+                }
+                screen.follow(row, col);
+            } else if (action.equalsIgnoreCase("v")) {
+                screen.scrollTo(row, col);
+            }
+
+            if (isWin()) {
+                screen.draw("Congratulations! You win!", "\n");
+                break;
+            }
+
+            if (gameOver) {
+                screen.draw("Game over! You hit a mine.", "\n");
+            }
+        }
+    }
+
+    private void record(MoveJournal.Action action, int r, int c) {
+        if (journal == null) return;
+        try {
+            journal.record(action, r * cols + c);
+        } catch (IOException e) {
+            System.err.println("Error writing move journal: " + e.getMessage());
+            closeJournal();
+        }
+    }
+
+    private void closeJournal() {
+        if (journal == null) return;
+        try {
+            journal.close();
+        } catch (IOException e) {
+            System.err.println("Error closing move journal: " + e.getMessage());
+        }
+        journal = null;
+    }
+
+    // Add methods for revealing cells, flagging, checking win/loss, BFS/DFS for empty cells
+    // ...existing code...
+    void revealCell(int startR, int startC) {
+        long start = Metrics.startSampled();
+        int before = safeCellsRemaining;
+        revealFrom(startR, startC);
+        Metrics.REVEAL.recordSince(start);
+        Metrics.REVEAL_CELLS.record(before - safeCellsRemaining);
+    }
+
+    private void revealFrom(int startR, int startC) {
+        if (revealed[startR][startC] || flagged[startR][startC]) return;
+
+        revealed[startR][startC] = true;
+        if (board[startR][startC] == '*') {
+            gameOver = true;
+            return;
+        }
+        safeCellsRemaining--;
+        if (board[startR][startC] != ' ') return;
+
+        // cells are marked when pushed, so each one enters the stack at most once
+        int top = 0;
+        work[top++] = startR * cols + startC;
+        while (top > 0) {
+            int i = work[--top];
+            int r = i / cols, c = i % cols;
+            for (int nr = Math.max(r - 1, 0); nr <= Math.min(r + 1, rows - 1); nr++) {
+                for (int nc = Math.max(c - 1, 0); nc <= Math.min(c + 1, cols - 1); nc++) {
+                    if (revealed[nr][nc] || flagged[nr][nc]) continue;
+                    revealed[nr][nc] = true;
+                    safeCellsRemaining--;
+                    if (board[nr][nc] == ' ') {
+                        if (top == work.length) work = Arrays.copyOf(work, top * 2);
+                        work[top++] = nr * cols + nc;
+                    }
+                }
+            }
+        }
+    }
+
+    // Hides the cells of one reveal again (r * cols + c, the cell it started
+    // from first), so benchmarks can repeat it on the same board; does
+    // nothing if that reveal has not happened.
+    void hide(int[] cells, int count) {
+        if (count == 0 || !revealed[cells[0] / cols][cells[0] % cols]) return;
+        for (int k = 0; k < count; k++) {
+            int r = cells[k] / cols, c = cells[k] % cols;
+            revealed[r][c] = false;
+            if (board[r][c] == '*') gameOver = false;
+            else safeCellsRemaining++;
+        }
+    }
+
+    void flagCell(int r, int c) {
+        if (!revealed[r][c]) {
+            flagged[r][c] = !flagged[r][c];
+        }
+    }
+
+    boolean isWin() {
+        Metrics.WIN_CHECKS.increment();
+        return safeCellsRemaining == 0;
+    }
+
+    boolean isGameOver() {
+        return gameOver;
+    }
+
+    int getSafeCellsRemaining() {
+        return safeCellsRemaining;
+    }
+
+    // what the player sees at (r, c)
+    char glyph(int r, int c) {
+        if (flagged[r][c]) return 'F';
+        if (!revealed[r][c]) return '#';
+        return board[r][c];
+    }
+}
@@ -0,0 +1,518 @@
+package minesweeper;
+
+import java.nio.LongBuffer;
+import java.util.*;
+import java.util.stream.IntStream;
+
+public class BoardLogic implements BoardView.Cells {
+    // each cell is one byte: low 4 bits = adjacent mines, high bits = state flags
+    private static final int ADJACENT_MASK = 0x0F;
+    private static final int MINE = 0x10;
+    private static final int REVEALED = 0x20;
+    private static final int FLAGGED = 0x40;
+
+    // below this size the plain per-cell count beats setting up row bitsets
+    private static final int BIT_PARALLEL_MIN_CELLS = 4096;
+    // above this size rows are split across the fork-join common pool
+    private static final int FORK_JOIN_MIN_CELLS = 1 << 20;
+
+    private final byte[] cells; // row-major, index = row * cols + col
+    private int rows, cols, mines;
+    private final long seed;
+    // live counters, kept in step with the cell bits so queries are O(1)
+    private int safeCellsRemaining;
+    private int flagsPlaced;
+    private int minesRevealed;
+    private int[] work = new int[64]; // flood fill stack of cell indices
+    // cells (row * cols + col) whose state changed in the last reveal, chord, flag,
+    // revealAllMines, undo or redo call; reused between calls
+    private int[] changed = new int[64];
+    private int changedCount;
+    // Undo history: one entry per move holding only the cells it changed, with
+    // flag toggles stored as ~cell. Off until setHistoryLimit; the oldest
+    // entries are dropped beyond maxMoves entries or maxCells stored cells.
+    private final ArrayDeque<int[]> undo = new ArrayDeque<>();
+    private final ArrayDeque<int[]> redo = new ArrayDeque<>();
+    private int maxMoves, maxCells;
+    private long historyCells;
+
+    // the limits the game plays with; a replay must use the same ones to undo alike
+    public static final int HISTORY_MOVES = 1000;
+    public static final int HISTORY_CELLS = 1 << 20;
+
+    public BoardLogic(int rows, int cols, int mines) {
+        this(rows, cols, mines, new SplittableRandom());
+    }
+
+    // the board seed is drawn from rng, so callers can hand out split() streams
+    public BoardLogic(int rows, int cols, int mines, SplittableRandom rng) {
+        this(rows, cols, mines, rng.nextLong());
+    }
+
+    // the same seed and dimensions always produce the same board
+    public BoardLogic(int rows, int cols, int mines, long seed) {
+        if (mines < 0 || mines > rows * cols)
+            throw new IllegalArgumentException("cannot place " + mines + " mines on " + rows + "x" + cols);
+        this.rows = rows;
+        this.cols = cols;
+        this.mines = mines;
+        this.seed = seed;
+        cells = new byte[rows * cols];
+        safeCellsRemaining = rows * cols - mines;
+
+        placeMines(new SplittableRandom(seed));
+        calculateAdjacents();
+    }
+
+    // Rebuilds a saved game from three bit planes, one bit per cell (cell i is
+    // bit i & 63 of word i >>> 6). Adjacency is recomputed from the mines.
+    BoardLogic(int rows, int cols, long seed, LongBuffer mineBits, LongBuffer revealedBits, LongBuffer flagBits) {
+        this.rows = rows;
+        this.cols = cols;
+        this.seed = seed;
+        cells = new byte[rows * cols];
+        int words = (cells.length + 63) >>> 6;
+        IntStream wordRange = IntStream.range(0, words);
+        if (cells.length >= FORK_JOIN_MIN_CELLS)
+            wordRange = wordRange.parallel();
+        wordRange.forEach(w -> {
+            long m = mineBits.get(w), v = revealedBits.get(w), f = flagBits.get(w);
+            int base = w << 6, end = Math.min(base + 64, cells.length);
+            for (int i = base; i < end; i++) {
+                int b = i - base; // MINE, REVEALED and FLAGGED are bits 4, 5 and 6
+                cells[i] = (byte) ((int) (m >>> b & 1) << 4 | (int) (v >>> b & 1) << 5 | (int) (f >>> b & 1) << 6);
+            }
+        });
+        int revealed = 0;
+        for (int w = 0; w < words; w++) {
+            long m = mineBits.get(w), v = revealedBits.get(w);
+            mines += Long.bitCount(m);
+            minesRevealed += Long.bitCount(m & v);
+            revealed += Long.bitCount(v);
+            flagsPlaced += Long.bitCount(flagBits.get(w));
+        }
+        safeCellsRemaining = cells.length - mines - (revealed - minesRevealed);
+        calculateAdjacents();
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    public int getMines() {
+        return mines;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getSafeCellsRemaining() {
+        return safeCellsRemaining;
+    }
+
+    public int getFlagsPlaced() {
+        return flagsPlaced;
+    }
+
+    public int getMinesRevealed() {
+        return minesRevealed;
+    }
+
+    public boolean isMine(int row, int col) {
+        return (cells[row * cols + col] & MINE) != 0;
+    }
+
+    public boolean isRevealed(int row, int col) {
+        return (cells[row * cols + col] & REVEALED) != 0;
+    }
+
+    public boolean isFlagged(int row, int col) {
+        return (cells[row * cols + col] & FLAGGED) != 0;
+    }
+
+    public int getAdjacentMines(int row, int col) {
+        return cells[row * cols + col] & ADJACENT_MASK;
+    }
+
+    // cells changed by the last mutating call; only the first
+    // getChangedCount() entries are valid, and only until the next call
+    public int[] getChangedCells() {
+        return changed;
+    }
+
+    public int getChangedCount() {
+        return changedCount;
+    }
+
+    // returns the number of cells changed (0 or 1)
+    public int toggleFlag(int row, int col) {
+        changedCount = 0;
+        int i = row * cols + col;
+        if ((cells[i] & REVEALED) == 0) {
+            flip(i);
+            addChanged(i);
+        }
+        return remember(true);
+    }
+
+    // Reveals every hidden mine. After a move that hit a mine they join that
+    // move's history entry, so one undo or redo covers the whole loss, just as
+    // one journaled move does on replay. Returns the number of mines revealed.
+    public int revealAllMines() {
+        boolean lost = minesRevealed > 0;
+        changedCount = 0;
+        for (int i = 0; i < cells.length; i++)
+            if ((cells[i] & (MINE | REVEALED)) == MINE)
+                markRevealed(i);
+        if (!lost || undo.isEmpty() || changedCount == 0)
+            return remember(false);
+        int[] move = undo.pollLast();
+        int[] entry = Arrays.copyOf(move, move.length + changedCount);
+        System.arraycopy(changed, 0, entry, move.length, changedCount);
+        undo.addLast(entry);
+        historyCells += changedCount;
+        trimHistory();
+        return changedCount;
+    }
+
+    // 0 turns the history off and clears it
+    public void setHistoryLimit(int maxMoves, int maxCells) {
+        this.maxMoves = maxMoves;
+        this.maxCells = maxCells;
+        if (maxMoves == 0) {
+            undo.clear();
+            redo.clear();
+            historyCells = 0;
+        }
+        trimHistory();
+    }
+
+    public boolean canUndo() {
+        return !undo.isEmpty();
+    }
+
+    public boolean canRedo() {
+        return !redo.isEmpty();
+    }
+
+    // approximate heap held by the undo and redo entries
+    public long getHistoryBytes() {
+        return historyCells * Integer.BYTES + (long) (undo.size() + redo.size()) * 16;
+    }
+
+    // takes back the last move, touching only the cells it changed; they are
+    // reported as the changed cells. Returns their count, 0 if nothing to undo.
+    public int undo() {
+        changedCount = 0;
+        int[] entry = undo.pollLast();
+        if (entry == null)
+            return 0;
+        for (int k = entry.length - 1; k >= 0; k--) {
+            int i = entry[k];
+            if (i < 0) {
+                flip(~i);
+                addChanged(~i);
+            } else {
+                cells[i] &= ~REVEALED;
+                if ((cells[i] & MINE) != 0)
+                    minesRevealed--;
+                else
+                    safeCellsRemaining++;
+                addChanged(i);
+            }
+        }
+        redo.addLast(entry);
+        return changedCount;
+    }
+
+    public int redo() {
+        changedCount = 0;
+        int[] entry = redo.pollLast();
+        if (entry == null)
+            return 0;
+        for (int i : entry) {
+            if (i < 0) {
+                flip(~i);
+                addChanged(~i);
+            } else {
+                markRevealed(i);
+            }
+        }
+        undo.addLast(entry);
+        return changedCount;
+    }
+
+    // records the cells changed by the move that just ran; a new move ends redo
+    private int remember(boolean flags) {
+        if (maxMoves == 0 || changedCount == 0)
+            return changedCount;
+        for (int[] entry : redo)
+            historyCells -= entry.length;
+        redo.clear();
+        int[] entry = Arrays.copyOf(changed, changedCount);
+        if (flags)
+            for (int k = 0; k < entry.length; k++)
+                entry[k] = ~entry[k];
+        undo.addLast(entry);
+        historyCells += entry.length;
+        trimHistory();
+        return changedCount;
+    }
+
+    // the newest entry is kept even if it alone exceeds maxCells
+    private void trimHistory() {
+        while (undo.size() > maxMoves || (historyCells > maxCells && undo.size() > 1))
+            historyCells -= undo.pollFirst().length;
+    }
+
+    private void flip(int i) {
+        cells[i] ^= FLAGGED;
+        flagsPlaced += (cells[i] & FLAGGED) != 0 ? 1 : -1;
+    }
+
+    // writes the state in the bit-plane layout read by the restoring constructor
+    void writeBits(LongBuffer mineBits, LongBuffer revealedBits, LongBuffer flagBits) {
+        int words = (cells.length + 63) >>> 6;
+        IntStream wordRange = IntStream.range(0, words);
+        if (cells.length >= FORK_JOIN_MIN_CELLS)
+            wordRange = wordRange.parallel();
+        wordRange.forEach(w -> {
+            long m = 0, v = 0, f = 0;
+            int base = w << 6, end = Math.min(base + 64, cells.length);
+            for (int i = base; i < end; i++) {
+                int b = i - base, x = cells[i];
+                m |= (long) (x >>> 4 & 1) << b;
+                v |= (long) (x >>> 5 & 1) << b;
+                f |= (long) (x >>> 6 & 1) << b;
+            }
+            mineBits.put(w, m);
+            revealedBits.put(w, v);
+            flagBits.put(w, f);
+        });
+    }
+
+    // Floyd's sampling: exactly one draw per mine at any density, using the
+    // MINE bits themselves as the set of chosen cells
+    private void placeMines(SplittableRandom rand) {
+        long start = Metrics.start();
+        int n = cells.length;
+        for (int j = n - mines; j < n; j++) {
+            int i = rand.nextInt(j + 1);
+            if ((cells[i] & MINE) != 0)
+                i = j;
+            cells[i] |= MINE;
+        }
+        Metrics.PLACE_MINES.recordSince(start);
+    }
+
+    private void calculateAdjacents() {
+        long start = Metrics.start();
+        if (cells.length >= BIT_PARALLEL_MIN_CELLS)
+            calculateAdjacentsBitParallel();
+        else
+            calculateAdjacentsScalar();
+        Metrics.CALCULATE_ADJACENTS.recordSince(start);
+    }
+
+    private void calculateAdjacentsScalar() {
+        for (int r = 0; r < rows; r++)
+            for (int c = 0; c < cols; c++) {
+                int i = r * cols + c;
+                if ((cells[i] & MINE) == 0)
+                    cells[i] |= countAdjacentMines(r, c);
+            }
+    }
+
+    private int countAdjacentMines(int row, int col) {
+        int count = 0;
+        for (int dr = -1; dr <= 1; dr++)
+            for (int dc = -1; dc <= 1; dc++) {
+                int nr = row + dr, nc = col + dc;
+                if (nr >= 0 && nr < rows && nc >= 0 && nc < cols && isMine(nr, nc))
+                    count++;
+            }
+        return count;
+    }
+
+    // Mines are packed into one bitset per row; for each 64-cell word the eight
+    // neighbour bitsets (rows above, same and below, shifted one column either
+    // way) are summed with a bit-sliced adder into four count planes.
+    private void calculateAdjacentsBitParallel() {
+        int words = (cols + 63) >>> 6;
+        long[] mineBits = new long[rows * words];
+        long lastWordMask = (cols & 63) == 0 ? -1L : (1L << cols) - 1;
+        IntStream rowRange = IntStream.range(0, rows);
+        if (cells.length >= FORK_JOIN_MIN_CELLS)
+            rowRange = rowRange.parallel();
+        rowRange.forEach(r -> {
+            int base = r * cols;
+            for (int c = 0; c < cols; c++)
+                if ((cells[base + c] & MINE) != 0)
+                    mineBits[r * words + (c >>> 6)] |= 1L << c;
+        });
+
+        rowRange = IntStream.range(0, rows);
+        if (cells.length >= FORK_JOIN_MIN_CELLS)
+            rowRange = rowRange.parallel();
+        rowRange.forEach(r -> {
+            long[] planes = new long[4];
+            for (int w = 0; w < words; w++) {
+                Arrays.fill(planes, 0);
+                for (int nr = Math.max(r - 1, 0); nr <= Math.min(r + 1, rows - 1); nr++) {
+                    int row = nr * words;
+                    long mid = mineBits[row + w];
+                    long prev = w > 0 ? mineBits[row + w - 1] : 0;
+                    long next = w + 1 < words ? mineBits[row + w + 1] : 0;
+                    // bit c of the shifted words holds cell c-1 and c+1 respectively
+                    addBits(planes, (mid << 1) | (prev >>> 63));
+                    addBits(planes, (mid >>> 1) | (next << 63));
+                    if (nr != r)
+                        addBits(planes, mid);
+                }
+                // only safe cells with a non-zero count need writing
+                long pending = (planes[0] | planes[1] | planes[2] | planes[3]) & ~mineBits[r * words + w];
+                if (w == words - 1)
+                    pending &= lastWordMask;
+                int base = r * cols + (w << 6);
+                while (pending != 0) {
+                    int b = Long.numberOfTrailingZeros(pending);
+                    pending &= pending - 1;
+                    int count = (int) ((planes[0] >>> b & 1) | (planes[1] >>> b & 1) << 1
+                            | (planes[2] >>> b & 1) << 2 | (planes[3] >>> b & 1) << 3);
+                    cells[base + b] |= count;
+                }
+            }
+        });
+    }
+
+    // adds a one-bit-per-lane input to the bit-sliced counters (max 8 per lane)
+    private static void addBits(long[] planes, long x) {
+        long carry = planes[0] & x;
+        planes[0] ^= x;
+        long carry2 = planes[1] & carry;
+        planes[1] ^= carry;
+        planes[3] |= planes[2] & carry2;
+        planes[2] ^= carry2;
+    }
+
+    // flood fill from (row, col); cells are marked revealed when pushed, so each
+    // is visited once, and the work stack is reused between calls. Returns the
+    // number of cells revealed.
+    public int reveal(int row, int col) {
+        long start = Metrics.startSampled();
+        int count = revealFrom(row, col);
+        Metrics.REVEAL.recordSince(start);
+        Metrics.REVEAL_CELLS.record(count);
+        return count;
+    }
+
+    private int revealFrom(int row, int col) {
+        changedCount = 0;
+        if (row < 0 || row >= rows || col < 0 || col >= cols)
+            return 0;
+        int start = row * cols + col;
+        if ((cells[start] & REVEALED) != 0)
+            return 0;
+        markRevealed(start);
+        if ((cells[start] & (MINE | ADJACENT_MASK)) != 0)
+            return remember(false);
+        work[0] = start;
+        floodFill(1);
+        return remember(false);
+    }
+
+    // Chording: on a revealed number with as many flagged neighbours as its
+    // count, reveals all its other hidden neighbours at once, and the zero cells
+    // among them seed one shared flood fill. A wrong flag leaves a mine among
+    // the revealed cells (getMinesRevealed() > 0). Returns the number of cells
+    // revealed; 0 if the cell cannot be chorded.
+    public int chord(int row, int col) {
+        changedCount = 0;
+        if (row < 0 || row >= rows || col < 0 || col >= cols)
+            return 0;
+        int adjacent = cells[row * cols + col] & ADJACENT_MASK;
+        if ((cells[row * cols + col] & (MINE | REVEALED)) != REVEALED || adjacent == 0)
+            return 0;
+        int flags = 0;
+        for (int nr = Math.max(row - 1, 0); nr <= Math.min(row + 1, rows - 1); nr++)
+            for (int nc = Math.max(col - 1, 0); nc <= Math.min(col + 1, cols - 1); nc++)
+                if ((cells[nr * cols + nc] & FLAGGED) != 0)
+                    flags++;
+        if (flags != adjacent)
+            return 0;
+
+        int top = 0;
+        for (int nr = Math.max(row - 1, 0); nr <= Math.min(row + 1, rows - 1); nr++)
+            for (int nc = Math.max(col - 1, 0); nc <= Math.min(col + 1, cols - 1); nc++) {
+                int n = nr * cols + nc;
+                if ((cells[n] & (REVEALED | FLAGGED)) != 0)
+                    continue;
+                markRevealed(n);
+                if ((cells[n] & (MINE | ADJACENT_MASK)) == 0)
+                    work[top++] = n; // at most 8, within the initial capacity
+            }
+        floodFill(top);
+        return remember(false);
+    }
+
+    // expands the zero cells on the work stack (already revealed) until it is
+    // empty; flagged cells are left alone, as in the console Board
+    private void floodFill(int top) {
+        while (top > 0) {
+            int i = work[--top];
+            int r = i / cols, c = i - r * cols;
+            for (int nr = Math.max(r - 1, 0); nr <= Math.min(r + 1, rows - 1); nr++)
+                for (int nc = Math.max(c - 1, 0); nc <= Math.min(c + 1, cols - 1); nc++) {
+                    int n = nr * cols + nc;
+                    if ((cells[n] & (REVEALED | FLAGGED)) != 0)
+                        continue;
+                    markRevealed(n);
+                    if ((cells[n] & ADJACENT_MASK) == 0) {
+                        if (top == work.length)
+                            work = Arrays.copyOf(work, top * 2);
+                        work[top++] = n;
+                    }
+                }
+        }
+    }
+
+    private void markRevealed(int i) {
+        cells[i] |= REVEALED;
+        if ((cells[i] & MINE) != 0)
+            minesRevealed++;
+        else
+            safeCellsRemaining--;
+        addChanged(i);
+    }
+
+    private void addChanged(int i) {
+        if (changedCount == changed.length)
+            changed = Arrays.copyOf(changed, changedCount * 2);
+        changed[changedCount++] = i;
+    }
+
+    // Hides the cells the last reveal or chord revealed again, so benchmarks can
+    // repeat one move on the same board. The history is not touched: use it
+    // only on a board that keeps none, or undo instead.
+    void hideChanged() {
+        for (int k = 0; k < changedCount; k++) {
+            int i = changed[k];
+            cells[i] &= ~REVEALED;
+            if ((cells[i] & MINE) != 0)
+                minesRevealed--;
+            else
+                safeCellsRemaining++;
+        }
+        changedCount = 0;
+    }
+
+    public boolean isGameWon() {
+        Metrics.WIN_CHECKS.increment();
+        return safeCellsRemaining == 0;
+    }
+}
@@ -0,0 +1,143 @@
+package minesweeper;
+
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Boards for the "no guessing" mode. A candidate is accepted only if the
+// Solver, starting from a zero cell, can reveal every safe cell without a
+// guess. Verification can take many attempts, so worker threads keep a few
+// ready boards per difficulty and a new game just takes one off the queue.
+// Boards are only ever generated on the workers, and each search gives up
+// after MAX_ATTEMPTS candidates or MAX_SEARCH_MILLIS, whichever comes first.
+public class BoardPool {
+    public static class PreparedBoard {
+        public final BoardLogic board; // untouched; the game reveals the start cell
+        public final int startRow, startCol;
+
+        PreparedBoard(BoardLogic board, int startRow, int startCol) {
+            this.board = board;
+            this.startRow = startRow;
+            this.startCol = startCol;
+        }
+    }
+
+    private static final int READY_PER_DIFFICULTY = 3;
+    private static final int MAX_ATTEMPTS = 20_000;
+    private static final long MAX_SEARCH_MILLIS = 5_000;
+
+    private static BoardPool instance;
+
+    private final ExecutorService workers = Executors.newFixedThreadPool(
+            Math.max(1, Runtime.getRuntime().availableProcessors() - 1), r -> {
+                Thread t = new Thread(r, "board-pool");
+                t.setDaemon(true);
+                t.setPriority(Thread.MIN_PRIORITY);
+                return t;
+            });
+    private final Map<String, BlockingQueue<PreparedBoard>> ready = new ConcurrentHashMap<>();
+    private final SplittableRandom seeds = new SplittableRandom();
+
+    public static synchronized BoardPool get() {
+        if (instance == null)
+            instance = new BoardPool();
+        return instance;
+    }
+
+    // starts filling the queue for a difficulty so the next take is instant
+    public void prefetch(int rows, int cols, int mines) {
+        BlockingQueue<PreparedBoard> queue = queue(rows, cols, mines);
+        for (int i = queue.size(); i < READY_PER_DIFFICULTY; i++)
+            refill(rows, cols, mines, queue);
+    }
+
+    // a ready board, or null at once if there is none; never generates on
+    // the calling thread
+    public PreparedBoard poll(int rows, int cols, int mines) {
+        BlockingQueue<PreparedBoard> queue = queue(rows, cols, mines);
+        PreparedBoard board = queue.poll();
+        if (board != null)
+            refill(rows, cols, mines, queue);
+        return board;
+    }
+
+    // Completes with a verified board as soon as one is ready, on a worker
+    // thread unless one is ready already; completes with null if the search
+    // gives up, in which case the queue is not refilled.
+    public CompletableFuture<PreparedBoard> take(int rows, int cols, int mines) {
+        PreparedBoard ready = poll(rows, cols, mines);
+        if (ready != null)
+            return CompletableFuture.completedFuture(ready);
+        BlockingQueue<PreparedBoard> queue = queue(rows, cols, mines);
+        SplittableRandom rng = split();
+        return CompletableFuture.supplyAsync(() -> {
+            // a refill that was already running may have finished meanwhile
+            PreparedBoard board = queue.poll();
+            if (board == null)
+                board = generate(rows, cols, mines, rng);
+            if (board != null)
+                refill(rows, cols, mines, queue);
+            return board;
+        }, workers);
+    }
+
+    public static PreparedBoard generate(int rows, int cols, int mines, SplittableRandom rng) {
+        long deadline = System.nanoTime() + MAX_SEARCH_MILLIS * 1_000_000;
+        for (int attempt = 0; attempt < MAX_ATTEMPTS && System.nanoTime() < deadline; attempt++) {
+            long seed = rng.nextLong();
+            BoardLogic trial = new BoardLogic(rows, cols, mines, seed);
+            int start = findZeroCell(trial, rng.nextInt(rows * cols));
+            if (start < 0)
+                continue;
+            trial.reveal(start / cols, start % cols);
+            Solver solver = new Solver(trial);
+            int cell;
+            while ((cell = solver.nextSafeCell()) >= 0) {
+                int changed = trial.reveal(cell / cols, cell % cols);
+                solver.update(trial.getChangedCells(), changed);
+            }
+            if (trial.isGameWon())
+                return new PreparedBoard(new BoardLogic(rows, cols, mines, seed), start / cols, start % cols);
+        }
+        System.err.println("No guess-free " + rows + "x" + cols + " board with " + mines + " mines found in time");
+        return null;
+    }
+
+    // first zero cell at or after from, wrapping around
+    private static int findZeroCell(BoardLogic board, int from) {
+        int cols = board.getCols(), n = board.getRows() * cols;
+        for (int k = 0; k < n; k++) {
+            int i = (from + k) % n;
+            int r = i / cols, c = i % cols;
+            if (!board.isMine(r, c) && board.getAdjacentMines(r, c) == 0)
+                return i;
+        }
+        return -1;
+    }
+
+    // one more board in the background; a search that fails is not retried
+    private void refill(int rows, int cols, int mines, BlockingQueue<PreparedBoard> queue) {
+        SplittableRandom rng = split();
+        workers.execute(() -> {
+            if (queue.remainingCapacity() == 0)
+                return;
+            PreparedBoard board = generate(rows, cols, mines, rng);
+            if (board != null)
+                queue.offer(board);
+        });
+    }
+
+    private synchronized SplittableRandom split() {
+        return seeds.split();
+    }
+
+    private BlockingQueue<PreparedBoard> queue(int rows, int cols, int mines) {
+        return ready.computeIfAbsent(rows + "x" + cols + "/" + mines,
+                k -> new ArrayBlockingQueue<>(READY_PER_DIFFICULTY));
+    }
+}
@@ -0,0 +1,311 @@
+package minesweeper;
+
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import javax.swing.*;
+
+// Draws the whole minefield in one component, meant to sit in a JScrollPane:
+// tiles are painted straight from the board state, only those inside the
+// clip, so a repaint costs what is on screen rather than the board size.
+// Mouse positions are mapped to cells here, and changes only repaint the
+// tiles they touch.
+//
+// The zoom is a tile size in pixels, one of ZOOM_LEVELS; Ctrl + mouse wheel
+// changes it around the pointer. From SPRITE_MIN_TILE up tiles come from the
+// sprite atlas with a one-pixel grid. Below that (level of detail) each
+// visible cell is one pixel of an offscreen image in a flat colour, and the
+// image is scaled up to the tile size in a single draw, so a zoomed-out view
+// of millions of cells costs one array write per cell shown.
+//
+// The cells come from a Cells source: BoardLogic for the normal game, or a
+// fixed-size window onto an EndlessBoard (see EndlessFrame).
+public class BoardView extends JComponent implements Scrollable {
+    private static final long serialVersionUID = 1L;
+
+    public interface CellListener {
+        void cellPressed(int row, int col, MouseEvent e);
+    }
+
+    // what the view reads from the board; rows and cols must not change
+    public interface Cells {
+        int getRows();
+        int getCols();
+        boolean isMine(int row, int col);
+        boolean isRevealed(int row, int col);
+        boolean isFlagged(int row, int col);
+        int getAdjacentMines(int row, int col);
+    }
+
+    public static final int[] ZOOM_LEVELS = {1, 2, 3, 4, 6, 8, 12, 16, 20, 24, 32, 40, 48, 64};
+    private static final int SPRITE_MIN_TILE = 8;
+    private static final int GAP = 1; // grid line between sprite tiles
+    private static final Color GRID_COLOR = new Color(180, 200, 230);
+    private static final Color HINT_COLOR = new Color(255, 200, 0);
+    // heat-map shades from green (certainly safe) to red (certain mine), per percent
+    private static final Color[] HEAT = new Color[101];
+    static {
+        for (int p = 0; p <= 100; p++)
+            HEAT[p] = new Color(255 * p / 100, 255 * (100 - p) / 100, 0, 110);
+    }
+    // level-of-detail colour per SpriteCache tile; numbers are tinted by count
+    private static final int[] LOD_RGB = {
+        0xE6E6E6, 0xC8D2F5, 0xC3E6C3, 0xF5C8C8, 0xAFB9E1, 0xE1AFAF, 0xAFE1E1, 0xA0A0A0, 0xC8C8C8,
+        0x202020, 0xE8601C, 0x7A8AA8, 0xFF0000
+    };
+
+    private final Cells board;
+    private int tileSize;
+    private int stride;           // tile plus grid line
+    private SpriteCache sprites;  // null below SPRITE_MIN_TILE
+    private BufferedImage lod;    // level-of-detail canvas, grown as needed
+    private int[] lodPixels;
+    private Dimension viewportLimit = new Dimension(Integer.MAX_VALUE, Integer.MAX_VALUE);
+    private int explodedRow = -1, explodedCol = -1;
+    private int hintRow = -1, hintCol = -1;
+    private ProbabilityEngine probabilities; // heat-map overlay, off when null; sprite zoom only
+
+    public BoardView(Cells board, int tileSize, CellListener listener) {
+        this.board = board;
+        setOpaque(true);
+        applyTileSize(tileSize);
+        addMouseListener(new MouseAdapter() {
+            @Override
+            public void mousePressed(MouseEvent e) {
+                int row = e.getY() / stride, col = e.getX() / stride;
+                if (row >= 0 && row < board.getRows() && col >= 0 && col < board.getCols())
+                    listener.cellPressed(row, col, e);
+            }
+        });
+        // Ctrl + wheel zooms; any other wheel event goes on to the scroll pane
+        addMouseWheelListener(e -> {
+            if (e.isControlDown()) {
+                zoom(e.getWheelRotation() < 0 ? 1 : -1, e.getPoint());
+                return;
+            }
+            Container scroller = SwingUtilities.getAncestorOfClass(JScrollPane.class, this);
+            if (scroller != null)
+                scroller.dispatchEvent(SwingUtilities.convertMouseEvent(this, e, scroller));
+        });
+    }
+
+    // the largest zoom level, at most max, that shows the whole board within
+    // width x height pixels; the smallest level if none does
+    public static int fitTileSize(int rows, int cols, int width, int height, int max) {
+        int fit = ZOOM_LEVELS[0];
+        for (int size : ZOOM_LEVELS) {
+            int stride = size >= SPRITE_MIN_TILE ? size + GAP : size;
+            if (size <= max && (long) cols * stride <= width && (long) rows * stride <= height)
+                fit = size;
+        }
+        return fit;
+    }
+
+    public int getTileSize() {
+        return tileSize;
+    }
+
+    // pixels from one tile to the next, grid line included
+    public int getStride() {
+        return stride;
+    }
+
+    // the most screen the scroll pane should ask for when the window is packed
+    public void setViewportLimit(Dimension limit) {
+        viewportLimit = limit;
+        revalidate();
+    }
+
+    // steps through ZOOM_LEVELS, keeping the cell under anchor (in this
+    // component's coordinates) where it is on screen
+    public void zoom(int steps, Point anchor) {
+        int level = 0;
+        while (level < ZOOM_LEVELS.length - 1 && ZOOM_LEVELS[level] < tileSize)
+            level++;
+        level = Math.max(0, Math.min(ZOOM_LEVELS.length - 1, level + steps));
+        setTileSize(ZOOM_LEVELS[level], anchor);
+    }
+
+    // anchor may be null for the centre of the visible area
+    public void setTileSize(int size, Point anchor) {
+        if (size == tileSize)
+            return;
+        Rectangle visible = getVisibleRect();
+        if (anchor == null)
+            anchor = new Point(visible.x + visible.width / 2, visible.y + visible.height / 2);
+        double cellX = anchor.x / (double) stride, cellY = anchor.y / (double) stride;
+        int onScreenX = anchor.x - visible.x, onScreenY = anchor.y - visible.y;
+        applyTileSize(size);
+        Container parent = getParent();
+        if (parent instanceof JViewport) {
+            JViewport viewport = (JViewport) parent;
+            Dimension extent = viewport.getExtentSize();
+            setSize(getPreferredSize());
+            int x = (int) Math.round(cellX * stride) - onScreenX;
+            int y = (int) Math.round(cellY * stride) - onScreenY;
+            x = Math.max(0, Math.min(x, getWidth() - extent.width));
+            y = Math.max(0, Math.min(y, getHeight() - extent.height));
+            viewport.setViewPosition(new Point(x, y));
+        }
+        revalidate();
+        repaint();
+    }
+
+    private void applyTileSize(int size) {
+        tileSize = size;
+        boolean useSprites = size >= SPRITE_MIN_TILE;
+        stride = useSprites ? size + GAP : size;
+        sprites = useSprites ? SpriteCache.get(size) : null;
+        int gap = useSprites ? GAP : 0;
+        Dimension preferred = new Dimension(board.getCols() * stride - gap, board.getRows() * stride - gap);
+        setPreferredSize(preferred);
+        setMinimumSize(new Dimension(Math.min(preferred.width, stride * 4), Math.min(preferred.height, stride * 4)));
+    }
+
+    public void setExploded(int row, int col) {
+        explodedRow = row;
+        explodedCol = col;
+        repaintCell(row, col);
+    }
+
+    // outlines a suggested cell until it is revealed or another hint replaces it,
+    // scrolling it into view
+    public void setHint(int row, int col) {
+        if (hintRow >= 0)
+            repaintCell(hintRow, hintCol);
+        hintRow = row;
+        hintCol = col;
+        repaintCell(row, col);
+        scrollRectToVisible(new Rectangle(col * stride, row * stride, tileSize, tileSize));
+    }
+
+    public void setProbabilities(ProbabilityEngine probabilities) {
+        if (probabilities == null && this.probabilities == null)
+            return;
+        this.probabilities = probabilities;
+        repaint();
+    }
+
+    public void repaintCell(int row, int col) {
+        repaint(col * stride, row * stride, tileSize, tileSize);
+    }
+
+    // repaints the bounding box of a batch of changed cells (row * cols + col)
+    // with a single request
+    public void repaintCells(int[] cells, int count) {
+        if (count == 0)
+            return;
+        int cols = board.getCols();
+        int minRow = Integer.MAX_VALUE, maxRow = -1, minCol = Integer.MAX_VALUE, maxCol = -1;
+        for (int k = 0; k < count; k++) {
+            int r = cells[k] / cols, c = cells[k] - r * cols;
+            minRow = Math.min(minRow, r);
+            maxRow = Math.max(maxRow, r);
+            minCol = Math.min(minCol, c);
+            maxCol = Math.max(maxCol, c);
+        }
+        repaint(minCol * stride, minRow * stride,
+                (maxCol - minCol) * stride + tileSize, (maxRow - minRow) * stride + tileSize);
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        long start = Metrics.start();
+        Rectangle clip = g.getClipBounds();
+        if (clip == null)
+            clip = new Rectangle(0, 0, getWidth(), getHeight());
+        g.setColor(GRID_COLOR);
+        g.fillRect(clip.x, clip.y, clip.width, clip.height);
+
+        int firstRow = Math.max(clip.y / stride, 0);
+        int lastRow = Math.min((clip.y + clip.height) / stride, board.getRows() - 1);
+        int firstCol = Math.max(clip.x / stride, 0);
+        int lastCol = Math.min((clip.x + clip.width) / stride, board.getCols() - 1);
+        if (sprites == null) {
+            if (firstRow <= lastRow && firstCol <= lastCol)
+                paintLevelOfDetail(g, firstRow, lastRow, firstCol, lastCol);
+        } else {
+            for (int r = firstRow; r <= lastRow; r++)
+                for (int c = firstCol; c <= lastCol; c++)
+                    sprites.draw(g, tile(r, c), c * stride, r * stride);
+        }
+
+        if (probabilities != null && sprites != null) {
+            for (int r = firstRow; r <= lastRow; r++)
+                for (int c = firstCol; c <= lastCol; c++) {
+                    if (board.isRevealed(r, c) || board.isFlagged(r, c))
+                        continue;
+                    g.setColor(HEAT[(int) Math.round(probabilities.getMineProbability(r, c) * 100)]);
+                    g.fillRect(c * stride, r * stride, tileSize, tileSize);
+                }
+        }
+
+        if (hintRow >= 0 && !board.isRevealed(hintRow, hintCol)) {
+            g.setColor(HINT_COLOR);
+            g.drawRect(hintCol * stride, hintRow * stride, tileSize - 1, tileSize - 1);
+            if (tileSize > 2)
+                g.drawRect(hintCol * stride + 1, hintRow * stride + 1, tileSize - 3, tileSize - 3);
+        }
+        Metrics.PAINT.recordSince(start);
+        Metrics.PAINT_TILES.record(Math.max(0, lastRow - firstRow + 1) * Math.max(0, lastCol - firstCol + 1));
+    }
+
+    // one pixel per cell into the offscreen image, then one scaled draw
+    private void paintLevelOfDetail(Graphics g, int firstRow, int lastRow, int firstCol, int lastCol) {
+        int width = lastCol - firstCol + 1, height = lastRow - firstRow + 1;
+        if (lod == null || lod.getWidth() < width || lod.getHeight() < height) {
+            int w = Math.max(width, lod == null ? 0 : lod.getWidth());
+            int h = Math.max(height, lod == null ? 0 : lod.getHeight());
+            lod = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+            lodPixels = ((DataBufferInt) lod.getRaster().getDataBuffer()).getData();
+        }
+        int scan = lod.getWidth();
+        for (int r = firstRow; r <= lastRow; r++) {
+            int p = (r - firstRow) * scan;
+            for (int c = firstCol; c <= lastCol; c++)
+                lodPixels[p++] = LOD_RGB[tile(r, c)];
+        }
+        g.drawImage(lod, firstCol * stride, firstRow * stride, (lastCol + 1) * stride, (lastRow + 1) * stride,
+                0, 0, width, height, null);
+    }
+
+    private int tile(int r, int c) {
+        if (board.isRevealed(r, c)) {
+            if (board.isMine(r, c))
+                return r == explodedRow && c == explodedCol ? SpriteCache.EXPLODED : SpriteCache.MINE;
+            return SpriteCache.EMPTY + board.getAdjacentMines(r, c);
+        }
+        return board.isFlagged(r, c) ? SpriteCache.FLAG : SpriteCache.UNKNOWN;
+    }
+
+    @Override
+    public Dimension getPreferredScrollableViewportSize() {
+        Dimension preferred = getPreferredSize();
+        return new Dimension(Math.min(preferred.width, viewportLimit.width),
+                Math.min(preferred.height, viewportLimit.height));
+    }
+
+    // a wheel notch moves about one sprite tile however far out the zoom is
+    @Override
+    public int getScrollableUnitIncrement(Rectangle visible, int orientation, int direction) {
+        return Math.max(stride, 16);
+    }
+
+    @Override
+    public int getScrollableBlockIncrement(Rectangle visible, int orientation, int direction) {
+        int extent = orientation == SwingConstants.HORIZONTAL ? visible.width : visible.height;
+        return Math.max(stride, extent - stride);
+    }
+
+    @Override
+    public boolean getScrollableTracksViewportWidth() {
+        return false;
+    }
+
+    @Override
+    public boolean getScrollableTracksViewportHeight() {
+        return false;
+    }
+}
@@ -0,0 +1,117 @@
+package minesweeper;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+// Reads "r row col" and "f row col" commands straight out of a 64 KB byte
+// buffer, with no Scanner, no per-line String and no exceptions for bad
+// input. Blank lines and '#' comments are skipped; a malformed line comes
+// back as a command with error set, and reading carries on with the next line.
+class CommandReader {
+    private final InputStream in;
+    private final byte[] buf = new byte[1 << 16];
+    private int pos, limit;
+    private int newlines;
+
+    // the last command read
+    int line;
+    char action;
+    int row, col;
+    String error; // null if the line parsed
+
+    CommandReader(InputStream in) {
+        this.in = in;
+    }
+
+    // false at the end of the input
+    boolean next() throws IOException {
+        while (true) {
+            int b = skipSpaces();
+            if (b < 0)
+                return false;
+            if (b == '\n') {
+                pos++;
+                newlines++;
+                continue;
+            }
+            if (b == '#') {
+                skipLine();
+                continue;
+            }
+            line = newlines + 1;
+            error = null;
+            action = (char) Character.toLowerCase(b);
+            pos++;
+            if (action != 'r' && action != 'f')
+                return fail("unknown command");
+            int b2 = peek();
+            if (b2 != ' ' && b2 != '\t')
+                return fail("unknown command");
+            row = readInt();
+            if (row < 0)
+                return fail("expected row");
+            col = readInt();
+            if (col < 0)
+                return fail("expected column");
+            b = skipSpaces();
+            if (b >= 0 && b != '\n' && b != '#')
+                return fail("unexpected text after column");
+            skipLine();
+            return true;
+        }
+    }
+
+    private boolean fail(String message) throws IOException {
+        error = message;
+        skipLine();
+        return true;
+    }
+
+    // a non-negative number of at most nine digits, or -1
+    private int readInt() throws IOException {
+        int b = skipSpaces(), value = 0, digits = 0;
+        while (b >= '0' && b <= '9' && digits < 10) {
+            value = value * 10 + (b - '0');
+            digits++;
+            pos++;
+            b = peek();
+        }
+        return digits == 0 || digits > 9 ? -1 : value;
+    }
+
+    private int skipSpaces() throws IOException {
+        int b = peek();
+        while (b == ' ' || b == '\t' || b == '\r') {
+            pos++;
+            b = peek();
+        }
+        return b;
+    }
+
+    // through the next newline, which is counted
+    private void skipLine() throws IOException {
+        while (true) {
+            int b = peek();
+            if (b < 0)
+                return;
+            pos++;
+            if (b == '\n') {
+                newlines++;
+                return;
+            }
+        }
+    }
+
+    // the next byte as 0-255, or -1 at the end of the input
+    private int peek() throws IOException {
+        if (pos == limit) {
+            limit = in.read(buf, 0, buf.length);
+            pos = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return -1;
+            }
+        }
+        return buf[pos] & 0xFF;
+    }
+}
@@ -0,0 +1,169 @@
+package minesweeper;
+
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+
+// Draws the console Board. Every frame is composed in one buffer and written
+// with a single call. With ANSI support the first frame draws the whole
+// screen and later frames only move the cursor to the cells whose glyph
+// changed; without it (output piped to a file) the whole board is printed
+// each time. Boards larger than the terminal are shown through a viewport,
+// and column numbers are written vertically so any width lines up.
+class ConsoleRenderer {
+    private static final String ESC = "\u001b[";
+
+    private final Board board;
+    private final PrintStream out;
+    private final boolean ansi;
+    private final int viewRows, viewCols;
+    private final int labelWidth;   // row numbers
+    private final int headerLines;  // digits in the largest column number
+    private final StringBuilder frame = new StringBuilder(4096);
+    private final char[] shown;     // glyph on screen per viewport cell, 0 = unknown
+    private int top, left;          // board cell in the viewport's top left corner
+    private boolean fullRedraw = true;
+
+    ConsoleRenderer(Board board, PrintStream out, boolean ansi, int terminalRows, int terminalCols) {
+        this.board = board;
+        this.out = out;
+        this.ansi = ansi;
+        this.labelWidth = String.valueOf(board.getRows() - 1).length();
+        this.headerLines = String.valueOf(board.getCols() - 1).length();
+        if (ansi) {
+            // header, two borders, status and prompt, plus the line the input echo moves to
+            this.viewRows = Math.max(1, Math.min(board.getRows(), terminalRows - headerLines - 5));
+            this.viewCols = Math.max(1, Math.min(board.getCols(), (terminalCols - labelWidth - 3) / 2));
+        } else {
+            this.viewRows = board.getRows();
+            this.viewCols = board.getCols();
+        }
+        this.shown = new char[viewRows * viewCols];
+    }
+
+    // from LINES and COLUMNS if the shell exports them, else 24x80
+    static ConsoleRenderer forTerminal(Board board) {
+        return new ConsoleRenderer(board, System.out, System.console() != null && System.getenv("TERM") != null,
+                envInt("LINES", 24), envInt("COLUMNS", 80));
+    }
+
+    private static int envInt(String name, int fallback) {
+        try {
+            return Integer.parseInt(System.getenv(name));
+        } catch (NumberFormatException e) {
+            return fallback;
+        }
+    }
+
+    // moves the viewport so (row, col) is its top left corner, as far as the board allows
+    void scrollTo(int row, int col) {
+        int newTop = Math.max(0, Math.min(row, board.getRows() - viewRows));
+        int newLeft = Math.max(0, Math.min(col, board.getCols() - viewCols));
+        if (newTop != top || newLeft != left) {
+            top = newTop;
+            left = newLeft;
+            fullRedraw = true;
+        }
+    }
+
+    // scrolls the least needed to bring (row, col) into view
+    void follow(int row, int col) {
+        int newTop = top, newLeft = left;
+        if (row < top)
+            newTop = row;
+        else if (row >= top + viewRows)
+            newTop = row - viewRows + 1;
+        if (col < left)
+            newLeft = col;
+        else if (col >= left + viewCols)
+            newLeft = col - viewCols + 1;
+        scrollTo(newTop, newLeft);
+    }
+
+    // draws the board, then the status line and the prompt
+    void draw(String status, String prompt) {
+        frame.setLength(0);
+        if (!ansi) {
+            appendBoard();
+            frame.append(status.isEmpty() ? "" : status + "\n").append(prompt);
+        } else if (fullRedraw) {
+            frame.append(ESC).append("H").append(ESC).append("2J");
+            appendBoard();
+            appendStatus(status, prompt);
+            fullRedraw = false;
+        } else {
+            appendChangedCells();
+            appendStatus(status, prompt);
+        }
+        byte[] bytes = frame.toString().getBytes(StandardCharsets.US_ASCII);
+        out.write(bytes, 0, bytes.length);
+        out.flush();
+    }
+
+    private void appendBoard() {
+        for (int line = 0; line < headerLines; line++) {
+            pad(labelWidth + 1);
+            for (int c = left; c < left + viewCols; c++) {
+                String number = String.valueOf(c);
+                int digit = number.length() - headerLines + line;
+                frame.append(digit >= 0 ? number.charAt(digit) : ' ').append(' ');
+            }
+            frame.append('\n');
+        }
+        appendBorder();
+        for (int r = top; r < top + viewRows; r++) {
+            String label = String.valueOf(r);
+            pad(labelWidth - label.length());
+            frame.append(label).append('|');
+            for (int c = left; c < left + viewCols; c++) {
+                char glyph = board.glyph(r, c);
+                shown[(r - top) * viewCols + (c - left)] = glyph;
+                frame.append(glyph).append(' ');
+            }
+            frame.append("|\n");
+        }
+        appendBorder();
+    }
+
+    private void appendBorder() {
+        pad(labelWidth);
+        frame.append('+');
+        for (int c = 0; c < viewCols; c++)
+            frame.append("--");
+        frame.append("+\n");
+    }
+
+    // cursor moves only where a glyph changed; a run of changed cells on one
+    // row needs a single move
+    private void appendChangedCells() {
+        for (int r = 0; r < viewRows; r++) {
+            int next = -1; // column the cursor is at after the last write
+            for (int c = 0; c < viewCols; c++) {
+                char glyph = board.glyph(top + r, left + c);
+                if (shown[r * viewCols + c] == glyph)
+                    continue;
+                shown[r * viewCols + c] = glyph;
+                if (c != next)
+                    moveTo(headerLines + 2 + r, labelWidth + 2 + 2 * c);
+                frame.append(glyph).append(' ');
+                next = c + 1;
+            }
+        }
+    }
+
+    private void appendStatus(String status, String prompt) {
+        int line = headerLines + viewRows + 3;
+        moveTo(line, 1);
+        frame.append(ESC).append("K").append(status);
+        moveTo(line + 1, 1);
+        frame.append(ESC).append("J").append(prompt);
+    }
+
+    private void moveTo(int line, int column) {
+        frame.append(ESC).append(line).append(';').append(column).append('H');
+    }
+
+    private void pad(int n) {
+        for (int i = 0; i < n; i++)
+            frame.append(' ');
+    }
+}
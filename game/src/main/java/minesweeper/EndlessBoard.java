@@ -0,0 +1,299 @@
+package minesweeper;
+
+import java.util.*;
+
+// Unbounded board for the endless mode. Whether a cell holds a mine is a pure
+// function of (seed, x, y), so nothing is generated up front: cells live in
+// 32x32 chunks that are only created when a reveal, a flag or the viewport
+// touches them. Chunks use the same one-byte cell layout as BoardLogic.
+public class EndlessBoard {
+    private static final int ADJACENT_MASK = 0x0F;
+    private static final int MINE = 0x10;
+    private static final int REVEALED = 0x20;
+    private static final int FLAGGED = 0x40;
+
+    private static final int CHUNK_SHIFT = 5;
+    public static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    // below this density zero regions percolate and a single click could open
+    // an infinite cascade
+    public static final double MIN_DENSITY = 0.12;
+
+    // resolved chunks idle for this many moves are dropped from memory
+    private static final int COLD_MOVES = 256;
+
+    private static class Chunk {
+        final byte[] cells = new byte[CHUNK_SIZE * CHUNK_SIZE];
+        int safeRemaining;
+        int flags;
+        long lastTouched;
+    }
+
+    private final long seed;
+    private final long mineThreshold; // cell is a mine when its hash is below this
+    private final Map<Long, Chunk> chunks = new HashMap<>();
+    // chunks with every safe cell revealed that were evicted; value = all mines flagged
+    private final Map<Long, Boolean> resolved = new HashMap<>();
+    private Chunk lastChunk;
+    private long lastKey;
+
+    private long moves;
+    private long safeCellsRevealed;
+    private long flagsPlaced;
+    private boolean gameOver;
+    private int[] work = new int[128]; // flood fill stack of (x, y) pairs
+
+    public EndlessBoard(long seed, double density) {
+        if (density < MIN_DENSITY || density >= 1)
+            throw new IllegalArgumentException("density must be in [" + MIN_DENSITY + ", 1): " + density);
+        this.seed = seed;
+        this.mineThreshold = (long) (density * (1L << 53));
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public long getSafeCellsRevealed() {
+        return safeCellsRevealed;
+    }
+
+    public long getFlagsPlaced() {
+        return flagsPlaced;
+    }
+
+    public boolean isGameOver() {
+        return gameOver;
+    }
+
+    public int getChunkCount() {
+        return chunks.size();
+    }
+
+    public int getResolvedChunkCount() {
+        return resolved.size();
+    }
+
+    public boolean isMine(int x, int y) {
+        long h = mix(seed ^ mix(((long) y << 32) | (x & 0xFFFFFFFFL)));
+        return (h >>> 11) < mineThreshold;
+    }
+
+    public boolean isRevealed(int x, int y) {
+        return (peek(x, y) & REVEALED) != 0;
+    }
+
+    public boolean isFlagged(int x, int y) {
+        return (peek(x, y) & FLAGGED) != 0;
+    }
+
+    public int getAdjacentMines(int x, int y) {
+        Chunk chunk = chunks.get(key(x >> CHUNK_SHIFT, y >> CHUNK_SHIFT));
+        if (chunk != null)
+            return chunk.cells[local(x, y)] & ADJACENT_MASK;
+        if (isMine(x, y))
+            return 0;
+        int count = 0;
+        for (int ny = y - 1; ny <= y + 1; ny++)
+            for (int nx = x - 1; nx <= x + 1; nx++)
+                if (isMine(nx, ny))
+                    count++;
+        return count;
+    }
+
+    // materialises every chunk overlapping the given cell rectangle
+    public void touchViewport(int x0, int y0, int x1, int y1) {
+        for (int cy = y0 >> CHUNK_SHIFT; cy <= y1 >> CHUNK_SHIFT; cy++)
+            for (int cx = x0 >> CHUNK_SHIFT; cx <= x1 >> CHUNK_SHIFT; cx++)
+                chunk(cx, cy);
+    }
+
+    public void toggleFlag(int x, int y) {
+        if (gameOver)
+            return;
+        Chunk chunk = chunkAt(x, y);
+        int i = local(x, y);
+        if ((chunk.cells[i] & REVEALED) != 0)
+            return;
+        chunk.cells[i] ^= FLAGGED;
+        int delta = (chunk.cells[i] & FLAGGED) != 0 ? 1 : -1;
+        chunk.flags += delta;
+        flagsPlaced += delta;
+        endMove();
+    }
+
+    // flood fill across chunk boundaries; cells are marked when pushed and
+    // flagged cells stop the cascade
+    public void reveal(int x, int y) {
+        if (gameOver)
+            return;
+        Chunk chunk = chunkAt(x, y);
+        int i = local(x, y);
+        if ((chunk.cells[i] & (REVEALED | FLAGGED)) != 0)
+            return;
+        markRevealed(chunk, i);
+        if ((chunk.cells[i] & (MINE | ADJACENT_MASK)) != 0) {
+            endMove();
+            return;
+        }
+
+        int top = 0;
+        work[top++] = x;
+        work[top++] = y;
+        while (top > 0) {
+            int cy = work[--top];
+            int cx = work[--top];
+            for (int ny = cy - 1; ny <= cy + 1; ny++)
+                for (int nx = cx - 1; nx <= cx + 1; nx++) {
+                    Chunk nc = chunkAt(nx, ny);
+                    int n = local(nx, ny);
+                    if ((nc.cells[n] & (REVEALED | FLAGGED)) != 0)
+                        continue;
+                    markRevealed(nc, n);
+                    if ((nc.cells[n] & ADJACENT_MASK) == 0) {
+                        if (top + 2 > work.length)
+                            work = Arrays.copyOf(work, work.length * 2);
+                        work[top++] = nx;
+                        work[top++] = ny;
+                    }
+                }
+        }
+        endMove();
+    }
+
+    // evicts resolved chunks that have not been touched for idleMoves moves
+    public void compact(long idleMoves) {
+        Iterator<Map.Entry<Long, Chunk>> it = chunks.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Long, Chunk> e = it.next();
+            Chunk chunk = e.getValue();
+            if (chunk.safeRemaining != 0 || moves - chunk.lastTouched < idleMoves)
+                continue;
+            int mines = chunk.cells.length - countSafe(chunk);
+            // a partially flagged chunk cannot be rebuilt from one bit
+            if (chunk.flags != 0 && chunk.flags != mines)
+                continue;
+            resolved.put(e.getKey(), chunk.flags != 0);
+            it.remove();
+        }
+        lastChunk = null;
+    }
+
+    private void endMove() {
+        moves++;
+        if (moves % COLD_MOVES == 0)
+            compact(COLD_MOVES);
+    }
+
+    private void markRevealed(Chunk chunk, int i) {
+        chunk.cells[i] |= REVEALED;
+        if ((chunk.cells[i] & MINE) != 0) {
+            gameOver = true;
+        } else {
+            chunk.safeRemaining--;
+            safeCellsRevealed++;
+        }
+    }
+
+    private byte peek(int x, int y) {
+        long k = key(x >> CHUNK_SHIFT, y >> CHUNK_SHIFT);
+        Chunk chunk = chunks.get(k);
+        if (chunk != null)
+            return chunk.cells[local(x, y)];
+        Boolean flaggedMines = resolved.get(k);
+        if (flaggedMines == null)
+            return 0;
+        if (!isMine(x, y))
+            return (byte) (REVEALED | getAdjacentMines(x, y));
+        return (byte) (flaggedMines ? MINE | FLAGGED : MINE);
+    }
+
+    private Chunk chunkAt(int x, int y) {
+        Chunk chunk = chunk(x >> CHUNK_SHIFT, y >> CHUNK_SHIFT);
+        chunk.lastTouched = moves;
+        return chunk;
+    }
+
+    private Chunk chunk(int cx, int cy) {
+        long k = key(cx, cy);
+        if (lastChunk != null && lastKey == k)
+            return lastChunk;
+        Chunk chunk = chunks.get(k);
+        if (chunk == null) {
+            chunk = generate(cx, cy);
+            Boolean flaggedMines = resolved.remove(k);
+            if (flaggedMines != null)
+                restoreResolved(chunk, flaggedMines);
+            chunk.lastTouched = moves;
+            chunks.put(k, chunk);
+        }
+        lastChunk = chunk;
+        lastKey = k;
+        return chunk;
+    }
+
+    private Chunk generate(int cx, int cy) {
+        // mine map with a one-cell apron so adjacency crosses chunk edges
+        int span = CHUNK_SIZE + 2;
+        boolean[] mineMap = new boolean[span * span];
+        int x0 = (cx << CHUNK_SHIFT) - 1, y0 = (cy << CHUNK_SHIFT) - 1;
+        for (int r = 0; r < span; r++)
+            for (int c = 0; c < span; c++)
+                mineMap[r * span + c] = isMine(x0 + c, y0 + r);
+
+        Chunk chunk = new Chunk();
+        for (int r = 0; r < CHUNK_SIZE; r++)
+            for (int c = 0; c < CHUNK_SIZE; c++) {
+                int m = (r + 1) * span + c + 1;
+                int i = (r << CHUNK_SHIFT) | c;
+                if (mineMap[m]) {
+                    chunk.cells[i] = MINE;
+                    continue;
+                }
+                int count = 0;
+                for (int dr = -span; dr <= span; dr += span)
+                    for (int dc = -1; dc <= 1; dc++)
+                        if (mineMap[m + dr + dc])
+                            count++;
+                chunk.cells[i] = (byte) count;
+                chunk.safeRemaining++;
+            }
+        return chunk;
+    }
+
+    private void restoreResolved(Chunk chunk, boolean flaggedMines) {
+        for (int i = 0; i < chunk.cells.length; i++) {
+            if ((chunk.cells[i] & MINE) == 0) {
+                chunk.cells[i] |= REVEALED;
+            } else if (flaggedMines) {
+                chunk.cells[i] |= FLAGGED;
+                chunk.flags++;
+            }
+        }
+        chunk.safeRemaining = 0;
+    }
+
+    private static int countSafe(Chunk chunk) {
+        int safe = 0;
+        for (byte cell : chunk.cells)
+            if ((cell & MINE) == 0)
+                safe++;
+        return safe;
+    }
+
+    private static long key(int cx, int cy) {
+        return ((long) cy << 32) | (cx & 0xFFFFFFFFL);
+    }
+
+    private static int local(int x, int y) {
+        return ((y & CHUNK_MASK) << CHUNK_SHIFT) | (x & CHUNK_MASK);
+    }
+
+    // SplitMix64 finaliser
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,180 @@
+package minesweeper;
+
+import java.awt.*;
+import java.awt.event.MouseEvent;
+import java.util.SplittableRandom;
+import javax.swing.*;
+
+// Endless mode: an EndlessBoard played through the same BoardView as the
+// normal game. BoardView needs a fixed size, so it gets a WINDOW x WINDOW
+// cell window onto the endless board. When the visible area comes within
+// MARGIN cells of the window's edge, the window moves to centre it again and
+// the scroll position moves with it, so the jump never shows on screen. The
+// game ends at the first mine; the score is the safe cells revealed.
+public class EndlessFrame extends JFrame {
+    private static final long serialVersionUID = 1L;
+
+    private static final int WINDOW = 4096;
+    private static final int MARGIN = 512;
+    private static final double DENSITY = 0.16;
+    private static final int TILE_SIZE = 32;
+
+    // row r, col c of the view is cell (x0 + c, y0 + r) of the endless board
+    private static class CellWindow implements BoardView.Cells {
+        EndlessBoard board;
+        int x0, y0;
+
+        public int getRows() {
+            return WINDOW;
+        }
+
+        public int getCols() {
+            return WINDOW;
+        }
+
+        public boolean isMine(int row, int col) {
+            return board.isMine(x0 + col, y0 + row);
+        }
+
+        public boolean isRevealed(int row, int col) {
+            return board.isRevealed(x0 + col, y0 + row);
+        }
+
+        public boolean isFlagged(int row, int col) {
+            return board.isFlagged(x0 + col, y0 + row);
+        }
+
+        public int getAdjacentMines(int row, int col) {
+            return board.getAdjacentMines(x0 + col, y0 + row);
+        }
+    }
+
+    private final CellWindow cells = new CellWindow();
+    private final BoardView boardView;
+    private final JScrollPane boardScroller;
+    private final JLabel scoreLabel;
+    private final JLabel flagLabel;
+    private final JButton smileyButton;
+    private int explodedX, explodedY; // valid once the board is over
+
+    public EndlessFrame() {
+        setTitle("Minesweeper - Endless");
+        setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+        setLayout(new BorderLayout());
+
+        JPanel topPanel = new JPanel(new GridBagLayout());
+        GridBagConstraints gbc = new GridBagConstraints();
+        gbc.fill = GridBagConstraints.BOTH;
+        gbc.insets = new Insets(2, 2, 2, 2);
+        scoreLabel = new JLabel("Cleared: 0", SwingConstants.LEFT);
+        scoreLabel.setFont(new Font("Consolas", Font.BOLD, 16));
+        flagLabel = new JLabel("Flags: 0", SwingConstants.RIGHT);
+        flagLabel.setFont(new Font("Consolas", Font.BOLD, 16));
+        smileyButton = new JButton(":)");
+        smileyButton.setFont(new Font("Segoe UI Emoji", Font.PLAIN, 18));
+        smileyButton.setMargin(new Insets(0, 0, 0, 0));
+        smileyButton.addActionListener(e -> newGame());
+        smileyButton.setFocusable(false);
+        gbc.gridx = 0; gbc.gridy = 0; gbc.weightx = 0.5;
+        topPanel.add(scoreLabel, gbc);
+        gbc.gridx = 1; gbc.weightx = 0;
+        topPanel.add(smileyButton, gbc);
+        gbc.gridx = 2; gbc.weightx = 0.5;
+        topPanel.add(flagLabel, gbc);
+        add(topPanel, BorderLayout.NORTH);
+
+        cells.board = new EndlessBoard(new SplittableRandom().nextLong(), DENSITY);
+        boardView = new BoardView(cells, TILE_SIZE, this::handleCell);
+        int stride = boardView.getStride();
+        boardView.setViewportLimit(new Dimension(30 * stride, 20 * stride));
+        boardScroller = new JScrollPane(boardView);
+        boardScroller.setBorder(BorderFactory.createEmptyBorder());
+        boardScroller.getViewport().addChangeListener(e -> recentre());
+        add(boardScroller, BorderLayout.CENTER);
+        pack();
+        setLocationRelativeTo(null);
+        startBoard();
+    }
+
+    private void handleCell(int row, int col, MouseEvent e) {
+        EndlessBoard board = cells.board;
+        if (board.isGameOver()) return;
+        int x = cells.x0 + col, y = cells.y0 + row;
+        if (SwingUtilities.isRightMouseButton(e)) {
+            board.toggleFlag(x, y);
+        } else if (SwingUtilities.isLeftMouseButton(e)) {
+            board.reveal(x, y);
+        }
+        // a cascade has no bound on the endless board, so the whole view is redrawn
+        boardView.repaint();
+        updateLabels();
+        if (board.isGameOver()) explode(x, y);
+    }
+
+    private void newGame() {
+        cells.board = new EndlessBoard(new SplittableRandom().nextLong(), DENSITY);
+        boardView.setExploded(-1, -1);
+        smileyButton.setText(":)");
+        startBoard();
+        boardView.repaint();
+    }
+
+    // opens the zero cell nearest the origin and scrolls it to the middle
+    private void startBoard() {
+        Point start = findStart(cells.board);
+        cells.x0 = start.x - WINDOW / 2;
+        cells.y0 = start.y - WINDOW / 2;
+        cells.board.reveal(start.x, start.y);
+        updateLabels();
+        int stride = boardView.getStride();
+        Dimension extent = boardScroller.getViewport().getExtentSize();
+        boardScroller.getViewport().setViewPosition(new Point(
+                WINDOW / 2 * stride - extent.width / 2, WINDOW / 2 * stride - extent.height / 2));
+    }
+
+    // rings of growing radius around (0, 0); the minimum density keeps zero cells common
+    private static Point findStart(EndlessBoard board) {
+        for (int radius = 0; ; radius++)
+            for (int y = -radius; y <= radius; y++)
+                for (int x = -radius; x <= radius; x += y == -radius || y == radius ? 1 : 2 * radius)
+                    if (!board.isMine(x, y) && board.getAdjacentMines(x, y) == 0)
+                        return new Point(x, y);
+    }
+
+    // moves the window when the visible area nears its edge
+    private void recentre() {
+        JViewport viewport = boardScroller.getViewport();
+        Rectangle visible = viewport.getViewRect();
+        int stride = boardView.getStride();
+        int firstCol = visible.x / stride, lastCol = (visible.x + visible.width) / stride;
+        int firstRow = visible.y / stride, lastRow = (visible.y + visible.height) / stride;
+        int dx = 0, dy = 0;
+        if (firstCol < MARGIN || lastCol >= WINDOW - MARGIN)
+            dx = (firstCol + lastCol) / 2 - WINDOW / 2;
+        if (firstRow < MARGIN || lastRow >= WINDOW - MARGIN)
+            dy = (firstRow + lastRow) / 2 - WINDOW / 2;
+        if (dx == 0 && dy == 0)
+            return;
+        cells.x0 += dx;
+        cells.y0 += dy;
+        if (cells.board.isGameOver())
+            boardView.setExploded(explodedY - cells.y0, explodedX - cells.x0);
+        viewport.setViewPosition(new Point(visible.x - dx * stride, visible.y - dy * stride));
+        boardView.repaint();
+    }
+
+    private void updateLabels() {
+        scoreLabel.setText("Cleared: " + cells.board.getSafeCellsRevealed());
+        flagLabel.setText("Flags: " + cells.board.getFlagsPlaced());
+    }
+
+    private void explode(int x, int y) {
+        explodedX = x;
+        explodedY = y;
+        boardView.setExploded(y - cells.y0, x - cells.x0);
+        AudioEngine.get().play(AudioEngine.Effect.BOMB);
+        smileyButton.setText(":(");
+        JOptionPane.showMessageDialog(this, "💥 Boom! You cleared " + cells.board.getSafeCellsRevealed() + " cells.",
+                "Game Over", JOptionPane.ERROR_MESSAGE);
+    }
+}
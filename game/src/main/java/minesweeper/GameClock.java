@@ -0,0 +1,52 @@
+package minesweeper;
+
+// Play time measured with System.nanoTime, so it neither drifts when the EDT
+// is busy nor rounds to whole seconds. Whatever shows the time only reads it.
+public class GameClock {
+    private long startNanos;   // while running: nanoTime at which the elapsed time was zero
+    private long stoppedNanos; // while stopped: the elapsed time
+    private boolean running;
+
+    // from zero, whether or not it was running
+    public void start() {
+        startNanos = System.nanoTime();
+        stoppedNanos = 0;
+        running = true;
+    }
+
+    public void resume() {
+        if (running)
+            return;
+        startNanos = System.nanoTime() - stoppedNanos;
+        running = true;
+    }
+
+    public void stop() {
+        if (!running)
+            return;
+        stoppedNanos = System.nanoTime() - startNanos;
+        running = false;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public long getElapsedMillis() {
+        return (running ? System.nanoTime() - startNanos : stoppedNanos) / 1_000_000;
+    }
+
+    // continues a saved game's time, running or not
+    public void setElapsedMillis(long millis) {
+        if (running)
+            startNanos = System.nanoTime() - millis * 1_000_000;
+        else
+            stoppedNanos = millis * 1_000_000;
+    }
+
+    // seconds with millisecond digits, e.g. 83.042
+    public static String format(long millis) {
+        long fraction = millis % 1000;
+        return millis / 1000 + (fraction < 10 ? ".00" : fraction < 100 ? ".0" : ".") + fraction;
+    }
+}
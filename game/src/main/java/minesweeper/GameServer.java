@@ -0,0 +1,300 @@
+package minesweeper;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+// Hosts many BoardLogic games on the loopback interface. One thread runs a
+// non-blocking selector over every connection, so a session costs a socket and
+// two small buffers rather than a thread, and games need no locking. A player
+// starts a game with NEW and plays it with MOVE; anyone may WATCH a game and
+// then receives the same DELTA the player gets after every move. See Protocol
+// for the messages.
+//
+//   java -cp game/target/classes minesweeper.GameServer [port]
+public class GameServer implements Runnable, Closeable {
+    public static final int DEFAULT_PORT = 4646;
+    // larger boards would make a single spectator snapshot unreasonably big
+    static final int MAX_CELLS = 1 << 24;
+    // a spectator this far behind is dropped rather than buffered without bound
+    private static final int MAX_QUEUED_BYTES = 8 << 20;
+
+    private final Selector selector;
+    private final ServerSocketChannel server;
+    private final Map<Integer, Game> games = new HashMap<>();
+    private int nextGameId = 1;
+    private volatile boolean running = true;
+
+    private static class Game {
+        final int id;
+        final BoardLogic board;
+        final List<Session> spectators = new ArrayList<>();
+        int moves;
+
+        Game(int id, BoardLogic board) {
+            this.id = id;
+            this.board = board;
+        }
+    }
+
+    private static class Session {
+        final SocketChannel channel;
+        final SelectionKey key;
+        final ByteBuffer in = ByteBuffer.allocate(256); // never grows: client frames are tiny
+        final ArrayDeque<ByteBuffer> out = new ArrayDeque<>();
+        long queuedBytes;
+        Game game;                                      // the one it plays
+        final List<Game> watching = new ArrayList<>(1);
+
+        Session(SocketChannel channel, SelectionKey key) {
+            this.channel = channel;
+            this.key = key;
+        }
+    }
+
+    // port 0 picks a free one
+    public GameServer(int port) throws IOException {
+        selector = Selector.open();
+        server = ServerSocketChannel.open();
+        server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 1024);
+        server.configureBlocking(false);
+        server.register(selector, SelectionKey.OP_ACCEPT);
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        GameServer gameServer = new GameServer(port);
+        System.out.println("Listening on " + gameServer.server.getLocalAddress());
+        gameServer.run();
+    }
+
+    public int getPort() {
+        return server.socket().getLocalPort();
+    }
+
+    public void run() {
+        try {
+            while (running) {
+                selector.select();
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid())
+                        continue;
+                    if (key.isAcceptable())
+                        accept();
+                    else {
+                        Session session = (Session) key.attachment();
+                        if (key.isWritable())
+                            flush(session);
+                        if (key.isValid() && key.isReadable())
+                            read(session);
+                    }
+                }
+            }
+        } catch (IOException | ClosedSelectorException e) {
+            if (running)
+                System.err.println("Error running game server: " + e.getMessage());
+        } finally {
+            closeQuietly();
+        }
+    }
+
+    public void close() {
+        running = false;
+        selector.wakeup();
+    }
+
+    private void closeQuietly() {
+        try {
+            for (SelectionKey key : selector.keys())
+                key.channel().close();
+            selector.close();
+        } catch (IOException e) {
+            System.err.println("Error closing game server: " + e.getMessage());
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel;
+        while ((channel = server.accept()) != null) {
+            channel.configureBlocking(false);
+            channel.socket().setTcpNoDelay(true);
+            SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+            key.attach(new Session(channel, key));
+        }
+    }
+
+    private void read(Session session) {
+        try {
+            // one read per wake-up; the selector fires again while more is waiting
+            int n = session.channel.read(session.in);
+            session.in.flip();
+            ByteBuffer payload;
+            while (session.key.isValid() && (payload = Protocol.nextFrame(session.in, Protocol.MAX_CLIENT_FRAME)) != null)
+                handle(session, payload);
+            session.in.compact();
+            if (n < 0)
+                disconnect(session);
+        } catch (IOException | RuntimeException e) {
+            // a reset connection or a malformed message ends only that session
+            disconnect(session);
+        }
+    }
+
+    private void handle(Session session, ByteBuffer payload) {
+        switch (payload.get()) {
+            case Protocol.NEW -> newGame(session, payload.getInt(), payload.getInt(), payload.getInt(), payload.getLong());
+            case Protocol.WATCH -> watch(session, payload.getInt());
+            case Protocol.MOVE -> move(session, payload.get(), payload.getInt());
+            default -> send(session, Protocol.error("unknown message"));
+        }
+    }
+
+    private void newGame(Session session, int rows, int cols, int mines, long seed) {
+        if (rows <= 0 || cols <= 0 || (long) rows * cols > MAX_CELLS || mines < 0 || mines >= rows * cols) {
+            send(session, Protocol.error("bad board size"));
+            return;
+        }
+        if (session.game != null)
+            endGame(session.game);
+        Game game = new Game(nextGameId++, new BoardLogic(rows, cols, mines, seed));
+        games.put(game.id, game);
+        session.game = game;
+        send(session, Protocol.game(game.id, rows, cols, mines));
+    }
+
+    private void watch(Session session, int id) {
+        Game game = games.get(id);
+        if (game == null) {
+            send(session, Protocol.error("no game " + id));
+            return;
+        }
+        BoardLogic board = game.board;
+        send(session, Protocol.game(game.id, board.getRows(), board.getCols(), board.getMines()));
+        // everything that is no longer hidden, as one delta
+        int[] cells = new int[64];
+        int count = 0;
+        for (int r = 0; r < board.getRows(); r++)
+            for (int c = 0; c < board.getCols(); c++)
+                if (board.isRevealed(r, c) || board.isFlagged(r, c)) {
+                    if (count == cells.length)
+                        cells = Arrays.copyOf(cells, count * 2);
+                    cells[count++] = r * board.getCols() + c;
+                }
+        send(session, Protocol.delta(board, 0, cells, count));
+        game.spectators.add(session);
+        session.watching.add(game);
+    }
+
+    private void move(Session session, byte action, int cell) {
+        Game game = session.game;
+        if (game == null) {
+            send(session, Protocol.error("no game"));
+            return;
+        }
+        BoardLogic board = game.board;
+        if (cell < 0 || cell >= board.getRows() * board.getCols()) {
+            send(session, Protocol.error("cell outside the board"));
+            return;
+        }
+        if (Protocol.status(board) != Protocol.PLAYING) {
+            send(session, Protocol.delta(board, game.moves, new int[0], 0));
+            return;
+        }
+        int row = cell / board.getCols(), col = cell % board.getCols();
+        switch (action) {
+            case Protocol.REVEAL -> board.reveal(row, col);
+            case Protocol.FLAG -> board.toggleFlag(row, col);
+            case Protocol.CHORD -> board.chord(row, col);
+            default -> {
+                send(session, Protocol.error("unknown action"));
+                return;
+            }
+        }
+        game.moves++;
+        // encoded once; every recipient writes from its own duplicate of it
+        ByteBuffer delta = Protocol.delta(board, game.moves, board.getChangedCells(), board.getChangedCount());
+        send(session, delta.duplicate());
+        if (!session.key.isValid())
+            return; // the player's own disconnect ended the game
+        for (int i = game.spectators.size() - 1; i >= 0; i--)
+            send(game.spectators.get(i), delta.duplicate());
+    }
+
+    private void endGame(Game game) {
+        games.remove(game.id);
+        for (Session spectator : game.spectators)
+            spectator.watching.remove(game);
+        game.spectators.clear();
+    }
+
+    private void send(Session session, ByteBuffer message) {
+        if (!session.key.isValid())
+            return;
+        if (session.out.isEmpty()) {
+            try {
+                session.channel.write(message);
+            } catch (IOException e) {
+                disconnect(session);
+                return;
+            }
+            if (!message.hasRemaining())
+                return;
+            session.key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+        }
+        session.out.add(message);
+        session.queuedBytes += message.remaining();
+        if (session.queuedBytes > MAX_QUEUED_BYTES)
+            disconnect(session);
+    }
+
+    private void flush(Session session) {
+        try {
+            ByteBuffer message;
+            while ((message = session.out.peek()) != null) {
+                int before = message.remaining();
+                session.channel.write(message);
+                session.queuedBytes -= before - message.remaining();
+                if (message.hasRemaining())
+                    return;
+                session.out.poll();
+            }
+            session.key.interestOps(SelectionKey.OP_READ);
+        } catch (IOException e) {
+            disconnect(session);
+        }
+    }
+
+    private void disconnect(Session session) {
+        session.key.cancel();
+        try {
+            session.channel.close();
+        } catch (IOException e) {
+            System.err.println("Error closing session: " + e.getMessage());
+        }
+        if (session.game != null) {
+            endGame(session.game);
+            session.game = null;
+        }
+        for (Game game : session.watching)
+            game.spectators.remove(session);
+        session.watching.clear();
+        session.out.clear();
+    }
+}
@@ -0,0 +1,333 @@
+package minesweeper;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Results of finished games per board size (rows x cols x mines). Every game
+// is appended to one file as a fixed 24-byte record, so recording costs one
+// small write and a crash can at worst leave a partial last record, which the
+// next load cuts off. Loading reads the file in one pass (memory-mapped from
+// MAP_MIN_BYTES up) into an in-memory index of counts, streaks and the TOP_K
+// fastest wins of each size, and every query is answered from the index. The
+// file is only touched by one background thread, in submission order, so the
+// EDT never waits for the disk. Other game processes may share the file: each
+// append holds a lock on it, first reads whatever they appended since, and
+// writes at the real end of the file.
+//
+//   0 magic   4 version   8 records, each (little-endian):
+//   0 rows   4 cols   8 mines   12 millis   16 finished, epoch seconds   20 won   21 reserved
+public class Leaderboard {
+    public static final Path DEFAULT_FILE = Paths.get(System.getProperty("user.home"), ".minesweeper", "results.bin");
+    public static final int TOP_K = 10;
+
+    private static final int MAGIC = 0x424C534D; // "MSLB"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 8;
+    private static final int RECORD_BYTES = 24;
+    private static final long MAP_MIN_BYTES = 1 << 20;
+    private static final int READ_CHUNK_BYTES = RECORD_BYTES * 2048;
+
+    private static Leaderboard instance;
+
+    private final Path file;
+    private final ExecutorService io = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "leaderboard");
+        t.setDaemon(true);
+        return t;
+    });
+    private final ByteBuffer record = ByteBuffer.allocate(RECORD_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    private FileChannel channel; // io thread only; null if the file cannot be used
+    private long end; // io thread only: how far into the file the index has read
+    private Map<Key, Entry> index = new HashMap<>(); // guarded by this
+    // io thread only: the entry of the previous record, usually the next one's
+    // too; it always belongs to the map being filled, since the load, which
+    // builds a new map, runs before any record
+    private Entry last;
+
+    // one size's results as of the call that returned it
+    public static class Stats {
+        public final int rows, cols, mines;
+        public final int games, wins, currentStreak, bestStreak;
+        public final long totalWinMillis;
+        public final int[] fastestMillis; // ascending, at most TOP_K
+        public final int[] fastestAt;     // epoch seconds each of those games ended
+
+        private Stats(Entry e) {
+            rows = e.key.rows;
+            cols = e.key.cols;
+            mines = e.key.mines;
+            games = e.games;
+            wins = e.wins;
+            currentStreak = e.streak;
+            bestStreak = e.bestStreak;
+            totalWinMillis = e.totalWinMillis;
+            fastestMillis = Arrays.copyOf(e.topMillis, e.topCount);
+            fastestAt = Arrays.copyOf(e.topAt, e.topCount);
+        }
+
+        public long getAverageWinMillis() {
+            return wins == 0 ? 0 : totalWinMillis / wins;
+        }
+    }
+
+    private static final class Key {
+        final int rows, cols, mines;
+
+        Key(int rows, int cols, int mines) {
+            this.rows = rows;
+            this.cols = cols;
+            this.mines = mines;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key && ((Key) o).rows == rows && ((Key) o).cols == cols && ((Key) o).mines == mines;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(rows, cols, mines);
+        }
+    }
+
+    private static final class Entry {
+        final Key key;
+        int games, wins, streak, bestStreak;
+        long totalWinMillis;
+        final int[] topMillis = new int[TOP_K];
+        final int[] topAt = new int[TOP_K];
+        int topCount;
+
+        Entry(Key key) {
+            this.key = key;
+        }
+
+        // returns the win's place among the fastest (1 = best), or 0
+        int add(boolean won, int millis, int at) {
+            games++;
+            if (!won) {
+                streak = 0;
+                return 0;
+            }
+            wins++;
+            streak++;
+            bestStreak = Math.max(bestStreak, streak);
+            totalWinMillis += millis;
+            // insertion into a sorted array of TOP_K; equal times keep their order
+            int pos = topCount;
+            while (pos > 0 && topMillis[pos - 1] > millis)
+                pos--;
+            if (pos == TOP_K)
+                return 0;
+            int moved = Math.min(topCount, TOP_K - 1) - pos;
+            System.arraycopy(topMillis, pos, topMillis, pos + 1, moved);
+            System.arraycopy(topAt, pos, topAt, pos + 1, moved);
+            topMillis[pos] = millis;
+            topAt[pos] = at;
+            topCount = Math.min(topCount + 1, TOP_K);
+            return pos + 1;
+        }
+    }
+
+    // loading starts at once on the background thread
+    Leaderboard(Path file) {
+        this.file = file;
+        io.execute(this::load);
+    }
+
+    public static synchronized Leaderboard get() {
+        if (instance == null)
+            instance = new Leaderboard(DEFAULT_FILE);
+        return instance;
+    }
+
+    // Completes on the background thread with the game's place among the
+    // fastest wins of its size (1 = new best), or 0. A result that cannot be
+    // written still counts until the process exits.
+    public CompletableFuture<Integer> record(int rows, int cols, int mines, boolean won, long millis) {
+        int time = (int) Math.min(millis, Integer.MAX_VALUE);
+        int at = (int) (System.currentTimeMillis() / 1000);
+        return CompletableFuture.supplyAsync(() -> {
+            append(rows, cols, mines, won, time, at);
+            synchronized (this) {
+                return entry(index, rows, cols, mines).add(won, time, at);
+            }
+        }, io);
+    }
+
+    // results for one size; all zero if none were recorded or loading has not finished
+    public synchronized Stats getStats(int rows, int cols, int mines) {
+        Entry e = index.get(new Key(rows, cols, mines));
+        return new Stats(e != null ? e : new Entry(new Key(rows, cols, mines)));
+    }
+
+    // every size with results, smallest board first
+    public synchronized List<Stats> getAllStats() {
+        List<Stats> all = new ArrayList<>();
+        for (Entry e : index.values())
+            all.add(new Stats(e));
+        all.sort(Comparator.comparingLong((Stats s) -> (long) s.rows * s.cols).thenComparingInt(s -> s.mines));
+        return all;
+    }
+
+    // waits for the load and every result recorded so far
+    void sync() {
+        try {
+            io.submit(() -> { }).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            System.err.println("Error waiting for results: " + e.getMessage());
+        }
+    }
+
+    // writes out pending results and releases the file; used on exit
+    public void close() {
+        io.execute(this::closeChannel);
+        sync();
+        io.shutdown();
+    }
+
+    private void load() {
+        Map<Key, Entry> loaded = new HashMap<>();
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null)
+                Files.createDirectories(parent);
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            FileLock lock = channel.lock();
+            try {
+                loadLocked(loaded);
+            } finally {
+                lock.release();
+            }
+        } catch (IOException e) {
+            System.err.println("Error loading results: " + e.getMessage());
+            closeChannel();
+        }
+        synchronized (this) {
+            index = loaded;
+        }
+    }
+
+    // under the lock, so no other process appends or truncates meanwhile
+    private void loadLocked(Map<Key, Entry> loaded) throws IOException {
+        long size = channel.size();
+        if (size < HEADER_BYTES) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN)
+                    .putInt(MAGIC).putInt(VERSION).flip();
+            channel.truncate(0);
+            while (header.hasRemaining())
+                channel.write(header, header.position());
+            size = HEADER_BYTES;
+        } else {
+            long records = (size - HEADER_BYTES) / RECORD_BYTES;
+            long complete = HEADER_BYTES + records * RECORD_BYTES;
+            ByteBuffer buf;
+            if (complete >= MAP_MIN_BYTES) {
+                buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, complete);
+            } else {
+                buf = ByteBuffer.allocate((int) complete);
+                while (buf.hasRemaining() && channel.read(buf, buf.position()) >= 0) {
+                }
+            }
+            buf.order(ByteOrder.LITTLE_ENDIAN);
+            if (buf.getInt(0) != MAGIC)
+                throw new IOException(file + " is not a results file");
+            if (buf.getInt(4) != VERSION)
+                throw new IOException(file + " has unsupported version " + buf.getInt(4));
+            addRecords(loaded, buf, HEADER_BYTES, (int) complete);
+            if (complete != size)
+                channel.truncate(complete); // a partial record from an interrupted write
+            size = complete;
+        }
+        end = size;
+    }
+
+    private void append(int rows, int cols, int mines, boolean won, int millis, int at) {
+        if (channel == null)
+            return;
+        record.clear();
+        record.putInt(rows).putInt(cols).putInt(mines).putInt(millis).putInt(at).put((byte) (won ? 1 : 0))
+                .put((byte) 0).put((byte) 0).put((byte) 0).flip();
+        try {
+            FileLock lock = channel.lock();
+            try {
+                readAppended();
+                while (record.hasRemaining())
+                    channel.write(record, end + record.position());
+                end += RECORD_BYTES;
+            } finally {
+                lock.release();
+            }
+        } catch (IOException e) {
+            System.err.println("Error saving result: " + e.getMessage());
+            closeChannel();
+        }
+    }
+
+    // Under the lock: indexes the records other processes appended since this
+    // one last read the file, so its result lands after theirs.
+    private void readAppended() throws IOException {
+        long size = channel.size();
+        long complete = end + (size - end) / RECORD_BYTES * RECORD_BYTES;
+        ByteBuffer buf = null;
+        while (end < complete) {
+            if (buf == null)
+                buf = ByteBuffer.allocate((int) Math.min(READ_CHUNK_BYTES, complete - end)).order(ByteOrder.LITTLE_ENDIAN);
+            buf.clear().limit((int) Math.min(buf.capacity(), complete - end));
+            while (buf.hasRemaining() && channel.read(buf, end + buf.position()) >= 0) {
+            }
+            int read = buf.position() / RECORD_BYTES * RECORD_BYTES;
+            if (read == 0)
+                throw new IOException(file + " shrank while reading");
+            synchronized (this) {
+                addRecords(index, buf, 0, read);
+            }
+            end += read;
+        }
+        if (complete != size)
+            channel.truncate(complete); // a partial record from an interrupted write
+    }
+
+    private void addRecords(Map<Key, Entry> map, ByteBuffer buf, int from, int to) {
+        for (int p = from; p < to; p += RECORD_BYTES)
+            entry(map, buf.getInt(p), buf.getInt(p + 4), buf.getInt(p + 8))
+                    .add(buf.get(p + 20) != 0, buf.getInt(p + 12), buf.getInt(p + 16));
+    }
+
+    private void closeChannel() {
+        try {
+            if (channel != null)
+                channel.close();
+        } catch (IOException e) {
+            System.err.println("Error closing results: " + e.getMessage());
+        }
+        channel = null;
+    }
+
+    private Entry entry(Map<Key, Entry> map, int rows, int cols, int mines) {
+        if (last != null && last.key.rows == rows && last.key.cols == cols && last.key.mines == mines)
+            return last;
+        return last = map.computeIfAbsent(new Key(rows, cols, mines), Entry::new);
+    }
+}
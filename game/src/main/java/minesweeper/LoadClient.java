@@ -0,0 +1,255 @@
+package minesweeper;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.SplittableRandom;
+
+// Load generator for GameServer. Opens many player sessions on one selector,
+// each playing random reveals with one move in flight and starting a new game
+// when one ends, plus optional spectators per player that follow its current
+// game. Latency is measured from writing a MOVE to reading the player's DELTA.
+// After a warm-up the counters are reset, and at the end one line of key=value
+// pairs is printed:
+//   sessions=.. spectators=.. games=.. moves=.. moves_per_s=.. p50_us=.. p99_us=.. max_us=..
+//   spectator_deltas_per_s=.. delta_bytes=.. errors=..
+// Without --port the server runs in this process on a free port.
+//
+//   java -cp game/target/classes minesweeper.LoadClient [--port N] [--sessions N] [--spectators N]
+//        [--seconds N] [--warmup N] [--board ROWSxCOLSxMINES] [--seed N]
+public class LoadClient {
+    private final Selector selector;
+    private final int rows, cols, mines;
+    private final SplittableRandom rng;
+
+    private final Simulator.Histogram latency = new Simulator.Histogram();
+    private long games, moves, spectatorDeltas, deltaBytes, errors;
+
+    private static class Connection {
+        SocketChannel channel;
+        SelectionKey key;
+        ByteBuffer in = ByteBuffer.allocate(1024);
+        final ArrayDeque<ByteBuffer> out = new ArrayDeque<>();
+        // players only
+        Connection[] spectators;
+        byte[] cells; // Protocol cell values as last seen
+        long sentAt;
+    }
+
+    LoadClient(int rows, int cols, int mines, long seed) throws IOException {
+        this.selector = Selector.open();
+        this.rows = rows;
+        this.cols = cols;
+        this.mines = mines;
+        this.rng = new SplittableRandom(seed);
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = -1, sessions = 1000, spectators = 0, seconds = 10, warmup = 2;
+        int rows = 16, cols = 30, mines = 99;
+        long seed = System.nanoTime();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--port" -> port = Integer.parseInt(args[++i]);
+                case "--sessions" -> sessions = Integer.parseInt(args[++i]);
+                case "--spectators" -> spectators = Integer.parseInt(args[++i]);
+                case "--seconds" -> seconds = Integer.parseInt(args[++i]);
+                case "--warmup" -> warmup = Integer.parseInt(args[++i]);
+                case "--seed" -> seed = Long.parseLong(args[++i]);
+                case "--board" -> {
+                    String[] parts = args[++i].split("x");
+                    rows = Integer.parseInt(parts[0]);
+                    cols = Integer.parseInt(parts[1]);
+                    mines = Integer.parseInt(parts[2]);
+                }
+                default -> {
+                    System.err.println("usage: LoadClient [--port N] [--sessions N] [--spectators N] [--seconds N]"
+                            + " [--warmup N] [--board ROWSxCOLSxMINES] [--seed N]");
+                    System.exit(2);
+                }
+            }
+        }
+        GameServer embedded = null;
+        if (port < 0) {
+            embedded = new GameServer(0);
+            port = embedded.getPort();
+            Thread thread = new Thread(embedded, "game-server");
+            thread.setDaemon(true);
+            thread.start();
+        }
+        LoadClient client = new LoadClient(rows, cols, mines, seed);
+        client.connect(port, sessions, spectators);
+        client.run(warmup * 1000L, seconds * 1000L, sessions, sessions * spectators);
+        if (embedded != null)
+            embedded.close();
+    }
+
+    void connect(int port, int sessions, int spectatorsPerSession) throws IOException {
+        InetSocketAddress address = new InetSocketAddress(InetAddress.getLoopbackAddress(), port);
+        for (int s = 0; s < sessions; s++) {
+            Connection player = open(address);
+            player.spectators = new Connection[spectatorsPerSession];
+            for (int k = 0; k < spectatorsPerSession; k++)
+                player.spectators[k] = open(address);
+            send(player, Protocol.newGame(rows, cols, mines, rng.nextLong()));
+        }
+    }
+
+    private Connection open(InetSocketAddress address) throws IOException {
+        Connection connection = new Connection();
+        connection.channel = SocketChannel.open(address);
+        connection.channel.configureBlocking(false);
+        connection.channel.socket().setTcpNoDelay(true);
+        connection.key = connection.channel.register(selector, SelectionKey.OP_READ, connection);
+        return connection;
+    }
+
+    void run(long warmupMillis, long measureMillis, int sessions, int spectators) throws IOException {
+        long start = System.nanoTime();
+        long measureFrom = start + warmupMillis * 1_000_000L;
+        long end = measureFrom + measureMillis * 1_000_000L;
+        boolean measuring = false;
+        while (true) {
+            long now = System.nanoTime();
+            if (now >= end)
+                break;
+            if (!measuring && now >= measureFrom) {
+                measuring = true;
+                latency.reset();
+                games = moves = spectatorDeltas = deltaBytes = errors = 0;
+            }
+            selector.select(Math.max(1, ((measuring ? end : measureFrom) - now) / 1_000_000L));
+            Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+            while (keys.hasNext()) {
+                SelectionKey key = keys.next();
+                keys.remove();
+                Connection connection = (Connection) key.attachment();
+                if (key.isValid() && key.isWritable())
+                    flush(connection);
+                if (key.isValid() && key.isReadable())
+                    read(connection);
+            }
+        }
+        double seconds = measureMillis / 1000.0;
+        System.out.printf("sessions=%d spectators=%d games=%d moves=%d moves_per_s=%d p50_us=%d p99_us=%d max_us=%d"
+                        + " spectator_deltas_per_s=%d delta_bytes=%.1f errors=%d%n",
+                sessions, spectators, games, moves, Math.round(moves / seconds),
+                latency.percentile(0.50) / 1000, latency.percentile(0.99) / 1000, latency.maxNanos / 1000,
+                Math.round(spectatorDeltas / seconds),
+                spectatorDeltas > 0 ? (double) deltaBytes / spectatorDeltas : 0.0, errors);
+    }
+
+    private void read(Connection connection) throws IOException {
+        int n;
+        while ((n = connection.channel.read(connection.in)) > 0)
+            connection.in = Protocol.ensureRoom(connection.in);
+        connection.in.flip();
+        ByteBuffer payload;
+        while ((payload = Protocol.nextFrame(connection.in, Protocol.MAX_FRAME)) != null)
+            handle(connection, payload);
+        connection.in.compact();
+        if (n < 0) {
+            System.err.println("Error: the server closed a session");
+            errors++;
+            connection.key.cancel();
+            connection.channel.close();
+        }
+    }
+
+    private void handle(Connection connection, ByteBuffer payload) {
+        int length = payload.remaining();
+        switch (payload.get()) {
+            case Protocol.GAME -> {
+                if (connection.spectators == null)
+                    return;
+                int id = payload.getInt();
+                connection.cells = new byte[rows * cols];
+                Arrays.fill(connection.cells, Protocol.HIDDEN);
+                for (Connection spectator : connection.spectators)
+                    send(spectator, Protocol.watch(id));
+                nextMove(connection);
+            }
+            case Protocol.DELTA -> {
+                if (connection.spectators == null) {
+                    spectatorDeltas++;
+                    deltaBytes += 4 + length;
+                    return;
+                }
+                latency.record(System.nanoTime() - connection.sentAt);
+                moves++;
+                payload.getInt(); // move number
+                byte status = payload.get();
+                int count = Protocol.getVarint(payload), cell = 0;
+                for (int k = 0; k < count; k++) {
+                    cell += Protocol.getVarint(payload);
+                    connection.cells[cell] = payload.get();
+                }
+                if (status == Protocol.PLAYING)
+                    nextMove(connection);
+                else {
+                    games++;
+                    send(connection, Protocol.newGame(rows, cols, mines, rng.nextLong()));
+                }
+            }
+            case Protocol.ERROR -> {
+                errors++;
+                System.err.println("Error from server: " + StandardCharsets.UTF_8.decode(payload));
+            }
+            default -> errors++;
+        }
+    }
+
+    // reveals a random hidden cell
+    private void nextMove(Connection player) {
+        byte[] cells = player.cells;
+        int cell = -1;
+        for (int tries = 0; tries < 16 && cell < 0; tries++) {
+            int i = rng.nextInt(cells.length);
+            if (cells[i] == Protocol.HIDDEN)
+                cell = i;
+        }
+        for (int i = rng.nextInt(cells.length), k = 0; cell < 0 && k < cells.length; k++, i = (i + 1) % cells.length)
+            if (cells[i] == Protocol.HIDDEN)
+                cell = i;
+        if (cell < 0) {
+            send(player, Protocol.newGame(rows, cols, mines, rng.nextLong()));
+            return;
+        }
+        player.sentAt = System.nanoTime();
+        send(player, Protocol.move(Protocol.REVEAL, cell));
+    }
+
+    private void send(Connection connection, ByteBuffer message) {
+        try {
+            if (connection.out.isEmpty()) {
+                connection.channel.write(message);
+                if (!message.hasRemaining())
+                    return;
+                connection.key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+            }
+            connection.out.add(message);
+        } catch (IOException e) {
+            System.err.println("Error sending: " + e.getMessage());
+            errors++;
+        }
+    }
+
+    private void flush(Connection connection) throws IOException {
+        ByteBuffer message;
+        while ((message = connection.out.peek()) != null) {
+            connection.channel.write(message);
+            if (message.hasRemaining())
+                return;
+            connection.out.poll();
+        }
+        connection.key.interestOps(SelectionKey.OP_READ);
+    }
+}
@@ -1,3 +1,5 @@
+package minesweeper;
+
 import javax.swing.SwingUtilities;
 
 public class Main {
@@ -1,7 +1,8 @@
+package minesweeper;
+
 import java.awt.*;
 import javax.swing.*;
 import javax.imageio.ImageIO;
-import javax.sound.sampled.*;
 import java.io.File;
 import java.io.IOException;
 
@@ -9,7 +10,6 @@ public class MenuFrame extends JFrame {
     private int rows = 9;
     private int cols = 9;
     private int mines = 10;
-    private Clip themeClip;
 
     public MenuFrame() {
         setTitle("Minesweeper Menu");
@@ -18,7 +18,7 @@ public class MenuFrame extends JFrame {
         setLocationRelativeTo(null);
         setResizable(false);
         try {
-            setIconImage(ImageIO.read(getClass().getResource("assets/Sprites/images.jpeg")));
+            setIconImage(ImageIO.read(new File("assets/Sprites/images.jpeg")));
         } catch (IOException e) {
             System.err.println("Error loading icon image: " + e.getMessage());
         }
@@ -81,9 +81,9 @@ public class MenuFrame extends JFrame {
 
         playButton.addActionListener(new java.awt.event.ActionListener() {
             public void actionPerformed(java.awt.event.ActionEvent e) {
-                // Lower volume and pass themeClip to game
-                lowerThemeVolume();
-                MinesweeperFrame frame = new MinesweeperFrame(rows, cols, mines, themeClip);
+                // Lower volume; the theme keeps streaming during the game
+                AudioEngine.get().lowerThemeVolume();
+                MinesweeperFrame frame = new MinesweeperFrame(rows, cols, mines);
                 frame.setVisible(true);
                 frame.startNewGame();
                 dispose();
@@ -102,7 +102,7 @@ public class MenuFrame extends JFrame {
         exitButton.setCursor(new Cursor(Cursor.HAND_CURSOR));
         exitButton.addActionListener(new java.awt.event.ActionListener() {
             public void actionPerformed(java.awt.event.ActionEvent e) {
-                stopThemeMusic();
+                AudioEngine.get().stopTheme();
                 System.exit(0);
             }
         });
@@ -118,43 +118,6 @@ public class MenuFrame extends JFrame {
         mainPanel.add(exitButton);
 
         setContentPane(mainPanel);
-        playThemeMusic();
-    }
-
-    private void playThemeMusic() {
-        try {
-            File soundFile = new File("assets/sound/pixel-dreams-259187.wav");
-            AudioInputStream audioIn = AudioSystem.getAudioInputStream(soundFile);
-            themeClip = AudioSystem.getClip();
-            themeClip.open(audioIn);
-            themeClip.loop(Clip.LOOP_CONTINUOUSLY);
-        } catch (UnsupportedAudioFileException | IOException | LineUnavailableException ex) {
-            System.err.println("Error playing theme music: " + ex.getMessage());
-        }
-    }
-
-    private void lowerThemeVolume() {
-        if (themeClip != null) {
-            FloatControl gainControl = (FloatControl) themeClip.getControl(FloatControl.Type.MASTER_GAIN);
-            gainControl.setValue(-15.0f); // Lower volume by 15 decibels
-        }
-    }
-
-    public static void restoreThemeVolume(Clip clip) {
-        if (clip != null) {
-            FloatControl gainControl = (FloatControl) clip.getControl(FloatControl.Type.MASTER_GAIN);
-            gainControl.setValue(0.0f); // Restore to normal volume
-        }
-    }
-
-    public Clip getThemeClip() {
-        return themeClip;
-    }
-
-    private void stopThemeMusic() {
-        if (themeClip != null && themeClip.isRunning()) {
-            themeClip.stop();
-            themeClip.close();
-        }
+        AudioEngine.get().startTheme();
     }
 }
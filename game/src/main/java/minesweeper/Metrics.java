@@ -0,0 +1,261 @@
+package minesweeper;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+// Process-wide counters and histograms for the engine and UI hot paths,
+// published as JMX MBeans named minesweeper:type=Metrics,name=<metric> (open
+// the process in jconsole or VisualVM). Recording never locks or spins (see
+// Shards), so the calls can stay in a release build. Run with
+// -Dminesweeper.metrics=false to turn recording into no-ops the JIT removes.
+public final class Metrics {
+    public static final boolean ENABLED = !"false".equalsIgnoreCase(System.getProperty("minesweeper.metrics"));
+
+    // operations too short and frequent to afford two clock reads each time
+    // one call in SAMPLE_EVERY; the tick is racy on purpose, since a lost
+    // update only shifts which call gets timed
+    private static final int SAMPLE_EVERY = 16;
+    private static int sampleTick;
+
+    private static final Map<String, Object> BEANS = new LinkedHashMap<>();
+
+    public static final Histogram PLACE_MINES = histogram("placeMines", "ns");
+    public static final Histogram CALCULATE_ADJACENTS = histogram("calculateAdjacents", "ns");
+    // sampled, see startSampled; revealCells counts every reveal
+    public static final Histogram REVEAL = histogram("reveal", "ns");
+    public static final Histogram REVEAL_CELLS = histogram("revealCells", "cells");
+    public static final Counter WIN_CHECKS = counter("winChecks");
+    public static final Histogram PAINT = histogram("paint", "ns");
+    public static final Histogram PAINT_TILES = histogram("paintTiles", "tiles");
+    public static final Histogram SPRITE_LOAD = histogram("spriteLoad", "ns");
+    public static final Histogram SPRITE_ATLAS = histogram("spriteAtlas", "ns");
+    public static final Histogram SOUND_LOAD = histogram("soundLoad", "ns");
+    // from AudioEngine.play to the clip starting on the audio thread
+    public static final Histogram SOUND_PLAY = histogram("soundPlay", "ns");
+
+    // starting the platform MBean server takes a few hundred milliseconds, which
+    // would otherwise land on whichever thread first builds a board
+    static {
+        if (ENABLED) {
+            Thread thread = new Thread(Metrics::registerAll, "metrics-jmx");
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    private Metrics() {
+    }
+
+    public interface CounterMBean {
+        long getCount();
+
+        void reset();
+    }
+
+    public interface HistogramMBean {
+        String getUnit();
+
+        long getCount();
+
+        long getSum();
+
+        double getMean();
+
+        long getMax();
+
+        long getP50();
+
+        long getP90();
+
+        long getP99();
+
+        void reset();
+    }
+
+    // Each thread records into its own long[] (a shard) found through a
+    // ThreadLocal, so an update is a few plain stores: no CAS, and no cache line
+    // shared with another writer. Readers add the shards up; a reading or reset
+    // that races with an update may miss that update.
+    private static class Shards {
+        private final int width;
+        private final List<long[]> all = new CopyOnWriteArrayList<>();
+        private final ThreadLocal<long[]> local = ThreadLocal.withInitial(this::newShard);
+
+        Shards(int width) {
+            this.width = width;
+        }
+
+        private long[] newShard() {
+            long[] shard = new long[width];
+            all.add(shard);
+            return shard;
+        }
+
+        long[] mine() {
+            return local.get();
+        }
+
+        long sum(int slot) {
+            long total = 0;
+            for (long[] shard : all)
+                total += shard[slot];
+            return total;
+        }
+
+        long max(int slot) {
+            long max = 0;
+            for (long[] shard : all)
+                max = Math.max(max, shard[slot]);
+            return max;
+        }
+
+        void reset() {
+            for (long[] shard : all)
+                Arrays.fill(shard, 0);
+        }
+    }
+
+    public static final class Counter implements CounterMBean {
+        private final Shards shards = new Shards(1);
+
+        private Counter() {
+        }
+
+        public void increment() {
+            if (ENABLED)
+                shards.mine()[0]++;
+        }
+
+        public long getCount() {
+            return shards.sum(0);
+        }
+
+        public void reset() {
+            shards.reset();
+        }
+    }
+
+    // Power-of-two buckets: a value v lands in bucket floor(log2(v)), so a
+    // percentile is known to within a factor of two, capped by the exact max.
+    public static final class Histogram implements HistogramMBean {
+        private static final int BUCKETS = 64, SUM = 64, MAX = 65;
+
+        private final String unit;
+        private final Shards shards = new Shards(66);
+
+        private Histogram(String unit) {
+            this.unit = unit;
+        }
+
+        public void record(long value) {
+            if (!ENABLED)
+                return;
+            long[] shard = shards.mine();
+            shard[63 - Long.numberOfLeadingZeros(Math.max(value, 1))]++;
+            shard[SUM] += value;
+            if (value > shard[MAX])
+                shard[MAX] = value;
+        }
+
+        // for timings: start comes from Metrics.start() or startSampled(); 0 records nothing
+        public void recordSince(long start) {
+            if (ENABLED && start != 0)
+                record(System.nanoTime() - start);
+        }
+
+        public String getUnit() {
+            return unit;
+        }
+
+        public long getCount() {
+            long count = 0;
+            for (int i = 0; i < BUCKETS; i++)
+                count += shards.sum(i);
+            return count;
+        }
+
+        public long getSum() {
+            return shards.sum(SUM);
+        }
+
+        public double getMean() {
+            long count = getCount();
+            return count == 0 ? 0 : (double) getSum() / count;
+        }
+
+        public long getMax() {
+            return shards.max(MAX);
+        }
+
+        public long getP50() {
+            return percentile(0.50);
+        }
+
+        public long getP90() {
+            return percentile(0.90);
+        }
+
+        public long getP99() {
+            return percentile(0.99);
+        }
+
+        // upper bound of the bucket holding the q-th quantile
+        long percentile(double q) {
+            long[] counts = new long[BUCKETS];
+            long count = 0;
+            for (int i = 0; i < BUCKETS; i++)
+                count += counts[i] = shards.sum(i);
+            long rank = (long) Math.ceil(q * count), seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += counts[i];
+                if (seen >= rank && seen > 0)
+                    return Math.min((2L << i) - 1, getMax());
+            }
+            return 0;
+        }
+
+        public void reset() {
+            shards.reset();
+        }
+    }
+
+    // a timestamp for Histogram.recordSince, or 0 without the clock read when disabled
+    public static long start() {
+        return ENABLED ? System.nanoTime() : 0;
+    }
+
+    // like start(), but 0 for all but one call in SAMPLE_EVERY
+    public static long startSampled() {
+        return ENABLED && (++sampleTick & (SAMPLE_EVERY - 1)) == 0 ? System.nanoTime() : 0;
+    }
+
+    private static Histogram histogram(String name, String unit) {
+        Histogram histogram = new Histogram(unit);
+        BEANS.put(name, histogram);
+        return histogram;
+    }
+
+    private static Counter counter(String name) {
+        Counter counter = new Counter();
+        BEANS.put(name, counter);
+        return counter;
+    }
+
+    private static void registerAll() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        for (Map.Entry<String, Object> bean : BEANS.entrySet()) {
+            try {
+                server.registerMBean(bean.getValue(), new ObjectName("minesweeper:type=Metrics,name=" + bean.getKey()));
+            } catch (JMException e) {
+                System.err.println("Error registering metric " + bean.getKey() + ": " + e.getMessage());
+            }
+        }
+    }
+}
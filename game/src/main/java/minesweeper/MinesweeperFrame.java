@@ -0,0 +1,678 @@
+package minesweeper;
+
+import java.awt.*;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseEvent;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import javax.imageio.ImageIO;
+import javax.swing.*;
+
+public class MinesweeperFrame extends JFrame {
+    private final int rows;
+    private final int cols;
+    private final int mines;
+    private boolean gameInProgress = false;
+    private int currentRows, currentCols, currentMines;
+    private JMenuItem continueItem;
+    private int gridRows, gridCols, gridMines;
+    private BoardView boardView;
+    private JScrollPane boardScroller;
+    private BoardLogic boardLogic;
+    private Solver solver; // null until a hint, auto-solve or the heat map needs it; see solver()
+    private ProbabilityEngine probabilities; // built and dropped with the solver
+    private boolean showProbabilities;
+    private boolean noGuessMode;
+    private SavedGame resumed; // consumed by the next initUI
+    private BoardPool.PreparedBoard arrived; // a no-guess board that arrived while waiting; consumed by the next initUI
+    private MoveJournal journal; // opened by the first move of a board
+    private boolean journalFailed;
+    private JLabel mineCounterLabel;
+    private JLabel timerLabel;
+    private final GameClock clock = new GameClock();
+    private Timer displayTimer; // only redraws the time; the clock measures it
+    private boolean resultRecorded; // per board
+    private JButton smileyButton;
+    private static final int TILE_SIZE = 40; // Match button size; the most a new board is zoomed in
+    private static final int MAX_SIDE = 4096; // custom boards, at most 1 << 24 cells
+    private static final int NO_GUESS_MAX_CELLS = 1 << 16; // larger boards are dealt at random
+
+
+    public MinesweeperFrame(int rows, int cols, int mines) {
+        this.rows = rows;
+        this.cols = cols;
+        this.mines = mines;
+        this.currentRows = rows;
+        this.currentCols = cols;
+        this.currentMines = mines;
+        this.gridRows = rows;
+        this.gridCols = cols;
+        this.gridMines = mines;
+        Leaderboard.get(); // starts loading past results in the background
+        setTitle("Minesweeper");
+        setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                saveGame();
+                closeJournal();
+                Leaderboard.get().close();
+            }
+        });
+        setLayout(new BorderLayout());
+        setJMenuBar(createMenuBar());
+        initUI();
+        pack();
+        setLocationRelativeTo(null);
+        setVisible(true);
+        AudioEngine.get().lowerThemeVolume();
+        try {
+            setIconImage(ImageIO.read(new File("assets/Sprites/images.jpeg")));
+        } catch (IOException e) {
+            System.err.println("Error loading icon image: " + e.getMessage());
+        }
+    }
+
+    private JMenuBar createMenuBar() {
+        JMenuBar menuBar = new JMenuBar();
+        JMenu gameMenu = new JMenu("Game");
+        JMenuItem startItem = new JMenuItem("Start");
+        continueItem = new JMenuItem("Continue");
+        JMenuItem undoItem = new JMenuItem("Undo");
+        JMenuItem redoItem = new JMenuItem("Redo");
+        JMenuItem hintItem = new JMenuItem("Hint");
+        JMenuItem autoSolveItem = new JMenuItem("Auto-solve");
+        JCheckBoxMenuItem probabilityItem = new JCheckBoxMenuItem("Show probabilities");
+        JCheckBoxMenuItem noGuessItem = new JCheckBoxMenuItem("No guessing");
+        JMenuItem endlessItem = new JMenuItem("Endless");
+        JMenuItem statisticsItem = new JMenuItem("Statistics");
+        JMenuItem exitItem = new JMenuItem("Exit");
+        JMenu difficultyMenu = new JMenu("Difficulty");
+        JMenuItem easyItem = new JMenuItem("Easy (9x9, 10 mines)");
+        JMenuItem mediumItem = new JMenuItem("Medium (16x16, 40 mines)");
+        JMenuItem hardItem = new JMenuItem("Hard (16x30, 99 mines)");
+        JMenuItem customItem = new JMenuItem("Custom...");
+        JMenu viewMenu = new JMenu("View");
+        JMenuItem zoomInItem = new JMenuItem("Zoom In");
+        JMenuItem zoomOutItem = new JMenuItem("Zoom Out");
+        JMenuItem fitItem = new JMenuItem("Fit Board");
+
+        startItem.addActionListener(e -> {
+            gameInProgress = true;
+            continueItem.setEnabled(true);
+            resetBoard(currentRows, currentCols, currentMines);
+        });
+        continueItem.addActionListener(e -> {
+            if (Files.exists(SavedGame.DEFAULT_FILE)) {
+                resumeSavedGame();
+            } else if (gameInProgress) {
+                this.requestFocus();
+            }
+        });
+        continueItem.setEnabled(Files.exists(SavedGame.DEFAULT_FILE));
+        undoItem.setAccelerator(KeyStroke.getKeyStroke('Z', Toolkit.getDefaultToolkit().getMenuShortcutKeyMaskEx()));
+        undoItem.addActionListener(e -> undoMove());
+        redoItem.setAccelerator(KeyStroke.getKeyStroke('Y', Toolkit.getDefaultToolkit().getMenuShortcutKeyMaskEx()));
+        redoItem.addActionListener(e -> redoMove());
+        hintItem.setAccelerator(KeyStroke.getKeyStroke('H', 0));
+        hintItem.addActionListener(e -> showHint());
+        autoSolveItem.addActionListener(e -> autoSolve());
+        probabilityItem.addActionListener(e -> {
+            showProbabilities = probabilityItem.isSelected();
+            updateProbabilities();
+        });
+        noGuessItem.addActionListener(e -> {
+            noGuessMode = noGuessItem.isSelected();
+            if (noGuess(gridRows, gridCols)) BoardPool.get().prefetch(gridRows, gridCols, gridMines);
+        });
+        endlessItem.addActionListener(e -> new EndlessFrame().setVisible(true));
+        statisticsItem.addActionListener(e -> showStatistics());
+        exitItem.addActionListener(e -> {
+            saveGame();
+            closeJournal();
+            Leaderboard.get().close();
+            System.exit(0);
+        });
+
+        easyItem.addActionListener(e -> changeDifficulty(9, 9, 10));
+        mediumItem.addActionListener(e -> changeDifficulty(16, 16, 40));
+        hardItem.addActionListener(e -> changeDifficulty(16, 30, 99));
+        customItem.addActionListener(e -> chooseCustomBoard());
+
+        int shortcut = Toolkit.getDefaultToolkit().getMenuShortcutKeyMaskEx();
+        zoomInItem.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_EQUALS, shortcut));
+        zoomInItem.addActionListener(e -> boardView.zoom(1, null));
+        zoomOutItem.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_MINUS, shortcut));
+        zoomOutItem.addActionListener(e -> boardView.zoom(-1, null));
+        fitItem.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_0, shortcut));
+        fitItem.addActionListener(e -> {
+            Dimension extent = boardScroller.getViewport().getExtentSize();
+            boardView.setTileSize(BoardView.fitTileSize(gridRows, gridCols, extent.width, extent.height,
+                    BoardView.ZOOM_LEVELS[BoardView.ZOOM_LEVELS.length - 1]), null);
+        });
+
+        difficultyMenu.add(easyItem);
+        difficultyMenu.add(mediumItem);
+        difficultyMenu.add(hardItem);
+        difficultyMenu.addSeparator();
+        difficultyMenu.add(customItem);
+
+        gameMenu.add(startItem);
+        gameMenu.add(continueItem);
+        gameMenu.addSeparator();
+        gameMenu.add(undoItem);
+        gameMenu.add(redoItem);
+        gameMenu.add(hintItem);
+        gameMenu.add(autoSolveItem);
+        gameMenu.add(probabilityItem);
+        gameMenu.addSeparator();
+        gameMenu.add(difficultyMenu);
+        gameMenu.add(noGuessItem);
+        gameMenu.add(endlessItem);
+        gameMenu.add(statisticsItem);
+        gameMenu.addSeparator();
+        gameMenu.add(exitItem);
+        menuBar.add(gameMenu);
+        viewMenu.add(zoomInItem);
+        viewMenu.add(zoomOutItem);
+        viewMenu.add(fitItem);
+        menuBar.add(viewMenu);
+
+        return menuBar;
+    }
+
+    // the label ticks ten times a second so it turns over close to each whole second
+    private void startTimer() {
+        clock.start();
+        showTime();
+        if (displayTimer == null) displayTimer = new Timer(100, e -> showTime());
+        displayTimer.start();
+    }
+
+    private void resumeTimer() {
+        clock.resume();
+        if (displayTimer != null) displayTimer.start();
+    }
+
+    // a finished game shows its exact time
+    private void stopTimer() {
+        clock.stop();
+        if (displayTimer != null) displayTimer.stop();
+        timerLabel.setText("Time: " + GameClock.format(clock.getElapsedMillis()));
+    }
+
+    private void showTime() {
+        timerLabel.setText("Time: " + clock.getElapsedMillis() / 1000);
+    }
+
+    private void updateMineCounter() {
+        mineCounterLabel.setText("Mines: " + (gridMines - boardLogic.getFlagsPlaced()));
+    }
+
+    private void resetBoard(int rows, int cols, int mines) {
+        this.gridRows = rows;
+        this.gridCols = cols;
+        this.gridMines = mines;
+        if (displayTimer != null) displayTimer.stop();
+        getContentPane().removeAll();
+        gameInProgress = true; // Ensure game is active after reset
+        initUI();
+        revalidate();
+        repaint();
+        pack(); // Ensure frame fits new grid, up to the screen; the board scrolls beyond that
+    }
+
+    private void changeDifficulty(int rows, int cols, int mines) {
+        if (noGuess(rows, cols)) BoardPool.get().prefetch(rows, cols, mines);
+        gameInProgress = false;
+        continueItem.setEnabled(false);
+        closeJournal();
+        resetBoard(rows, cols, mines);
+    }
+
+    private void chooseCustomBoard() {
+        JSpinner rowSpinner = new JSpinner(new SpinnerNumberModel(gridRows, 2, MAX_SIDE, 1));
+        JSpinner colSpinner = new JSpinner(new SpinnerNumberModel(gridCols, 2, MAX_SIDE, 1));
+        JSpinner mineSpinner = new JSpinner(new SpinnerNumberModel(gridMines, 1, MAX_SIDE * MAX_SIDE - 1, 1));
+        JPanel panel = new JPanel(new GridLayout(3, 2, 6, 4));
+        panel.add(new JLabel("Rows (2-" + MAX_SIDE + "):"));
+        panel.add(rowSpinner);
+        panel.add(new JLabel("Columns (2-" + MAX_SIDE + "):"));
+        panel.add(colSpinner);
+        panel.add(new JLabel("Mines:"));
+        panel.add(mineSpinner);
+        if (JOptionPane.showConfirmDialog(this, panel, "Custom Board", JOptionPane.OK_CANCEL_OPTION,
+                JOptionPane.PLAIN_MESSAGE) != JOptionPane.OK_OPTION) return;
+        int rows = (Integer) rowSpinner.getValue(), cols = (Integer) colSpinner.getValue();
+        int mines = (Integer) mineSpinner.getValue();
+        if (mines >= rows * cols) {
+            JOptionPane.showMessageDialog(this, "A " + rows + "x" + cols + " board holds at most " + (rows * cols - 1) + " mines.",
+                    "Custom Board", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        changeDifficulty(rows, cols, mines);
+    }
+
+    // No verified board was ready: the random one just dealt stays hidden and
+    // idle until the pool has one, which then replaces it. If the search gives
+    // up, the random board is played after all.
+    private void waitForBoard() {
+        int rows = gridRows, cols = gridCols, mines = gridMines;
+        BoardLogic placeholder = boardLogic;
+        gameInProgress = false;
+        mineCounterLabel.setText("Preparing board...");
+        BoardPool.get().take(rows, cols, mines).thenAccept(board -> SwingUtilities.invokeLater(() -> {
+            if (boardLogic != placeholder) return; // another game was started meanwhile
+            if (board != null) {
+                arrived = board;
+                resetBoard(rows, cols, mines);
+                return;
+            }
+            gameInProgress = true;
+            updateMineCounter();
+            startTimer();
+            JOptionPane.showMessageDialog(this, "No guess-free board was found in time; this one may need a guess.",
+                    "No guessing", JOptionPane.INFORMATION_MESSAGE);
+        }));
+    }
+
+    // the no-guess generator retries whole boards, which only pays off on small ones
+    private boolean noGuess(int rows, int cols) {
+        return noGuessMode && (long) rows * cols <= NO_GUESS_MAX_CELLS;
+    }
+
+    // the most screen the board may take when the window is packed; a new
+    // board starts at the largest zoom, up to TILE_SIZE, that fits in it
+    private Dimension boardViewportLimit() {
+        Rectangle screen = GraphicsEnvironment.getLocalGraphicsEnvironment().getMaximumWindowBounds();
+        return new Dimension(Math.max(screen.width - 60, 200), Math.max(screen.height - 160, 200));
+    }
+
+    // --- IMPROVEMENTS ---
+    // 1. Always initialize boardLogic in initUI/resetBoard
+    // 2. Add right-click flagging
+    // 3. Use exploded icon for the mine that ends the game
+    // 4. Always repaint the board view after board changes
+
+    private void initUI() {
+        if (boardScroller != null) {
+            remove(boardScroller);
+        }
+        // --- Top Panel Layout ---
+        JPanel topPanel = new JPanel(new GridBagLayout());
+        GridBagConstraints gbc = new GridBagConstraints();
+        gbc.fill = GridBagConstraints.BOTH;
+        gbc.weightx = 1.0;
+        gbc.insets = new Insets(2, 2, 2, 2);
+
+        mineCounterLabel = new JLabel("Mines: " + gridMines, SwingConstants.LEFT);
+        mineCounterLabel.setFont(new Font("Consolas", Font.BOLD, 16));
+        timerLabel = new JLabel("Time: 0", SwingConstants.RIGHT);
+        timerLabel.setFont(new Font("Consolas", Font.BOLD, 16));
+        smileyButton = new JButton(":)");
+        smileyButton.setFont(new Font("Segoe UI Emoji", Font.PLAIN, 18));
+        smileyButton.setMargin(new Insets(0,0,0,0));
+        smileyButton.addActionListener(e -> startNewGame());
+        smileyButton.setFocusable(false);
+
+        gbc.gridx = 0; gbc.gridy = 0; gbc.weightx = 0.5;
+        topPanel.add(mineCounterLabel, gbc);
+        gbc.gridx = 1; gbc.weightx = 0;
+        topPanel.add(smileyButton, gbc);
+        gbc.gridx = 2; gbc.weightx = 0.5;
+        topPanel.add(timerLabel, gbc);
+        add(topPanel, BorderLayout.NORTH);
+
+        // --- Game Grid ---
+        BoardPool.PreparedBoard prepared = null;
+        boolean waiting = false;
+        BoardLogic previous = boardLogic;
+        if (resumed != null) {
+            boardLogic = resumed.board;
+        } else {
+            if (noGuess(gridRows, gridCols)) {
+                prepared = arrived != null ? arrived : BoardPool.get().poll(gridRows, gridCols, gridMines);
+                waiting = prepared == null;
+            }
+            arrived = null;
+            boardLogic = prepared != null ? prepared.board : new BoardLogic(gridRows, gridCols, gridMines);
+        }
+        boardLogic.setHistoryLimit(BoardLogic.HISTORY_MOVES, BoardLogic.HISTORY_CELLS);
+        solver = null;
+        probabilities = null;
+        // a new board of the same size keeps the player's zoom
+        Dimension limit = boardViewportLimit();
+        int tileSize = boardView != null && previous.getRows() == boardLogic.getRows() && previous.getCols() == boardLogic.getCols()
+                ? boardView.getTileSize()
+                : BoardView.fitTileSize(boardLogic.getRows(), boardLogic.getCols(), limit.width, limit.height, TILE_SIZE);
+        boardView = new BoardView(boardLogic, tileSize, (row, col, e) -> {
+            if (!gameInProgress) return;
+            int bothButtons = MouseEvent.BUTTON1_DOWN_MASK | MouseEvent.BUTTON3_DOWN_MASK;
+            if (SwingUtilities.isMiddleMouseButton(e) || (e.getModifiersEx() & bothButtons) == bothButtons) {
+                handleChord(row, col);
+            } else if (SwingUtilities.isRightMouseButton(e)) {
+                handleFlagCell(row, col);
+            } else if (SwingUtilities.isLeftMouseButton(e)) {
+                handleCellClick(row, col);
+            }
+        });
+        boardView.setViewportLimit(limit);
+        boardScroller = new JScrollPane(boardView);
+        boardScroller.setBorder(BorderFactory.createEmptyBorder());
+        add(boardScroller, BorderLayout.CENTER);
+        closeJournal();
+        journalFailed = false;
+        resultRecorded = false;
+        if (prepared != null) {
+            // the opening the no-guess board was verified from
+            handleCellClick(prepared.startRow, prepared.startCol);
+        }
+        updateProbabilities();
+        if (waiting) {
+            waitForBoard();
+            return;
+        }
+        startTimer();
+        if (resumed != null) {
+            clock.setElapsedMillis(resumed.elapsedMillis);
+            showTime();
+            updateMineCounter();
+            resumed = null;
+        }
+    }
+
+    // each board journals to a file named after its seed, so a resumed game
+    // continues the journal it started
+    private void record(MoveJournal.Action action, int row, int col) {
+        if (journalFailed) return;
+        try {
+            if (journal == null)
+                journal = MoveJournal.open(MoveJournal.fileFor(boardLogic.getSeed()), boardLogic);
+            journal.record(action, row * gridCols + col);
+        } catch (IOException e) {
+            System.err.println("Error writing move journal: " + e.getMessage());
+            closeJournal();
+            journalFailed = true;
+        }
+    }
+
+    private void closeJournal() {
+        if (journal == null) return;
+        try {
+            journal.close();
+        } catch (IOException e) {
+            System.err.println("Error closing move journal: " + e.getMessage());
+        }
+        journal = null;
+    }
+
+    // keeps an unfinished game for Continue; a finished one leaves no save behind
+    private void saveGame() {
+        try {
+            if (gameInProgress && boardLogic.getMinesRevealed() == 0 && !boardLogic.isGameWon()) {
+                SavedGame.save(SavedGame.DEFAULT_FILE, boardLogic, clock.getElapsedMillis());
+            } else {
+                Files.deleteIfExists(SavedGame.DEFAULT_FILE);
+            }
+        } catch (IOException e) {
+            System.err.println("Error saving game: " + e.getMessage());
+        }
+    }
+
+    // replaces the current board with the saved one; the save is removed
+    // and written again when the window closes
+    private void resumeSavedGame() {
+        try {
+            resumed = SavedGame.load(SavedGame.DEFAULT_FILE);
+            Files.deleteIfExists(SavedGame.DEFAULT_FILE);
+        } catch (IOException e) {
+            JOptionPane.showMessageDialog(this, "Could not load the saved game: " + e.getMessage(), "Continue", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        if (smileyButton != null) smileyButton.setText(":)");
+        resetBoard(resumed.board.getRows(), resumed.board.getCols(), resumed.board.getMines());
+        continueItem.setEnabled(true);
+    }
+
+    private void handleCellClick(int row, int col) {
+        if (row < 0 || row >= gridRows || col < 0 || col >= gridCols) return;
+        if (boardLogic.isRevealed(row, col) || boardLogic.isFlagged(row, col)) return;
+        record(MoveJournal.Action.REVEAL, row, col);
+        int changed = boardLogic.reveal(row, col);
+        boardView.repaintCells(boardLogic.getChangedCells(), changed);
+        if (boardLogic.isMine(row, col)) {
+            explode(row, col); // the other mines join this move's history entry
+        } else {
+            afterReveal(changed);
+        }
+        updateMineCounter();
+    }
+
+    // opens the neighbours of a satisfied number in one engine call
+    private void handleChord(int row, int col) {
+        int changed = boardLogic.chord(row, col);
+        if (changed == 0) return;
+        record(MoveJournal.Action.CHORD, row, col);
+        int[] cells = boardLogic.getChangedCells();
+        boardView.repaintCells(cells, changed);
+        for (int k = 0; k < changed; k++) {
+            if (boardLogic.isMine(cells[k] / gridCols, cells[k] % gridCols)) {
+                explode(cells[k] / gridCols, cells[k] % gridCols); // a flag was wrong
+                return;
+            }
+        }
+        afterReveal(changed);
+    }
+
+    private void explode(int row, int col) {
+        int changed = boardLogic.revealAllMines();
+        boardView.setExploded(row, col);
+        boardView.repaintCells(boardLogic.getChangedCells(), changed);
+        AudioEngine.get().play(AudioEngine.Effect.BOMB);
+        smileyButton.setText(":(");
+        stopTimer();
+        recordResult(false);
+        JOptionPane.showMessageDialog(this, "💥 Boom! You hit a mine.", "Game Over", JOptionPane.ERROR_MESSAGE);
+        gameInProgress = false;
+        continueItem.setEnabled(false);
+        closeJournal();
+    }
+
+    // feeds a batch of revealed cells to the solver and checks for a win
+    private void afterReveal(int changed) {
+        if (solver != null) {
+            solver.update(boardLogic.getChangedCells(), changed);
+            probabilities.update(boardLogic.getChangedCells(), changed);
+        }
+        updateProbabilities();
+        if (checkWin()) {
+            smileyButton.setText("😎");
+            stopTimer();
+            recordResult(true);
+            JOptionPane.showMessageDialog(this, "🎉 You Win!\nTime: " + GameClock.format(clock.getElapsedMillis()) + " s",
+                    "Victory", JOptionPane.INFORMATION_MESSAGE);
+            gameInProgress = false;
+            continueItem.setEnabled(false);
+        }
+    }
+
+    private void handleFlagCell(int row, int col) {
+        if (boardLogic.isRevealed(row, col)) return;
+        record(MoveJournal.Action.FLAG, row, col);
+        int changed = boardLogic.toggleFlag(row, col);
+        boardView.repaintCells(boardLogic.getChangedCells(), changed);
+        updateMineCounter();
+    }
+
+    // Built from what is revealed on first use, and kept up to date move by move
+    // from then on. Both scan the whole board when built, so this happens only
+    // once a hint, auto-solve or the heat map asks, never as part of a move or
+    // an undo.
+    private Solver solver() {
+        if (solver == null) {
+            solver = new Solver(boardLogic);
+            probabilities = new ProbabilityEngine(boardLogic, solver);
+        }
+        return solver;
+    }
+
+    private void updateProbabilities() {
+        if (showProbabilities) {
+            solver();
+            probabilities.compute();
+            boardView.setProbabilities(probabilities);
+        } else {
+            boardView.setProbabilities(null);
+        }
+    }
+
+    private void showHint() {
+        if (!gameInProgress) return;
+        int cell = solver().nextSafeCell();
+        if (cell < 0) {
+            JOptionPane.showMessageDialog(this, "No certain move left - you'll have to guess.", "Hint", JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+        int row = cell / gridCols, col = cell % gridCols;
+        boardView.setHint(row, col);
+        // the deduction may be that one of the player's flags is wrong
+        if (boardLogic.isFlagged(row, col))
+            JOptionPane.showMessageDialog(this, "The flag at row " + (row + 1) + ", column " + (col + 1)
+                    + " is wrong: that cell is safe.", "Hint", JOptionPane.INFORMATION_MESSAGE);
+    }
+
+    // plays every deduced move until the solver runs out, then flags known
+    // mines; a wrong flag on a deduced safe cell is taken off first
+    private void autoSolve() {
+        int cell;
+        while (gameInProgress && (cell = solver().nextSafeCell()) >= 0) {
+            int row = cell / gridCols, col = cell % gridCols;
+            if (boardLogic.isFlagged(row, col)) handleFlagCell(row, col);
+            handleCellClick(row, col);
+        }
+        while (gameInProgress && (cell = solver().nextMineCell()) >= 0) {
+            handleFlagCell(cell / gridCols, cell % gridCols);
+        }
+    }
+
+    // Takes back the last move, or the lost game's last move and its mine
+    // reveal, and lets play continue. Only the reverted tiles are repainted.
+    private void undoMove() {
+        if (boardLogic == null || !boardLogic.canUndo()) return;
+        int changed = boardLogic.undo();
+        record(MoveJournal.Action.UNDO, 0, 0);
+        boardView.repaintCells(boardLogic.getChangedCells(), changed);
+        // the solver only learns, so it is dropped and rebuilt when next needed
+        solver = null;
+        probabilities = null;
+        updateProbabilities();
+        updateMineCounter();
+        if (boardLogic.getMinesRevealed() > 0) return; // the losing move fell out of the history
+        boardView.setExploded(-1, -1);
+        if (!gameInProgress) {
+            gameInProgress = true;
+            continueItem.setEnabled(true);
+            smileyButton.setText(":)");
+            resumeTimer();
+        }
+    }
+
+    private void redoMove() {
+        if (boardLogic == null || !boardLogic.canRedo()) return;
+        int changed = boardLogic.redo();
+        record(MoveJournal.Action.REDO, 0, 0);
+        boardView.repaintCells(boardLogic.getChangedCells(), changed);
+        if (boardLogic.getMinesRevealed() > 0) {
+            // the losing move, which took the reveal of every mine with it; its
+            // own cells come first, so the first mine is the one that went off
+            int[] cells = boardLogic.getChangedCells();
+            for (int k = 0; k < changed; k++) {
+                if (boardLogic.isMine(cells[k] / gridCols, cells[k] % gridCols)) {
+                    boardView.setExploded(cells[k] / gridCols, cells[k] % gridCols);
+                    break;
+                }
+            }
+            smileyButton.setText(":(");
+            stopTimer();
+            gameInProgress = false;
+            continueItem.setEnabled(false);
+        } else {
+            if (solver != null) {
+                solver.update(boardLogic.getChangedCells(), changed);
+                probabilities.update(boardLogic.getChangedCells(), changed);
+            }
+            updateProbabilities();
+            if (checkWin()) {
+                smileyButton.setText("😎");
+                stopTimer();
+                gameInProgress = false;
+                continueItem.setEnabled(false);
+            }
+        }
+        updateMineCounter();
+    }
+
+    // Once per board, so a lost game that is undone and then won still counts
+    // as lost. The write happens off the EDT; a top time is shown once known.
+    private void recordResult(boolean won) {
+        if (resultRecorded) return;
+        resultRecorded = true;
+        long millis = clock.getElapsedMillis();
+        JLabel label = timerLabel;
+        Leaderboard.get().record(gridRows, gridCols, gridMines, won, millis).thenAccept(place -> {
+            if (place > 0) SwingUtilities.invokeLater(() -> label.setText("Time: " + GameClock.format(millis) + " (#" + place + ")"));
+        });
+    }
+
+    private void showStatistics() {
+        StringBuilder text = new StringBuilder();
+        for (Leaderboard.Stats stats : Leaderboard.get().getAllStats()) {
+            text.append(difficultyName(stats.rows, stats.cols, stats.mines)).append('\n');
+            text.append("  Played ").append(stats.games).append(", won ").append(stats.wins)
+                    .append(" (").append(stats.wins * 100 / stats.games).append("%)")
+                    .append(", streak ").append(stats.currentStreak).append(", best streak ").append(stats.bestStreak).append('\n');
+            if (stats.wins > 0)
+                text.append("  Average win ").append(GameClock.format(stats.getAverageWinMillis())).append(" s\n");
+            for (int k = 0; k < stats.fastestMillis.length; k++) {
+                LocalDate day = LocalDate.ofInstant(Instant.ofEpochSecond(Integer.toUnsignedLong(stats.fastestAt[k])), ZoneId.systemDefault());
+                text.append(String.format("  %2d. %10s s  %s%n", k + 1, GameClock.format(stats.fastestMillis[k]), day));
+            }
+            text.append('\n');
+        }
+        if (text.length() == 0) text.append("No finished games yet.");
+        JTextArea area = new JTextArea(text.toString().trim());
+        area.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 13));
+        area.setEditable(false);
+        JScrollPane scroll = new JScrollPane(area);
+        scroll.setPreferredSize(new Dimension(460, 360));
+        JOptionPane.showMessageDialog(this, scroll, "Statistics", JOptionPane.PLAIN_MESSAGE);
+    }
+
+    private static String difficultyName(int rows, int cols, int mines) {
+        String size = rows + "x" + cols + ", " + mines + " mines";
+        if (rows == 9 && cols == 9 && mines == 10) return "Easy (" + size + ")";
+        if (rows == 16 && cols == 16 && mines == 40) return "Medium (" + size + ")";
+        if (rows == 16 && cols == 30 && mines == 99) return "Hard (" + size + ")";
+        return size;
+    }
+
+    private boolean checkWin() {
+        return boardLogic.isGameWon();
+    }
+
+    // Call this to ensure timer, counter, and smiley are reset for a new game
+    public void startNewGame() {
+        gameInProgress = true;
+        if (displayTimer != null) displayTimer.stop();
+        if (timerLabel != null) timerLabel.setText("Time: 0");
+        if (mineCounterLabel != null) mineCounterLabel.setText("Mines: " + gridMines);
+        if (smileyButton != null) smileyButton.setText(":)");
+        resetBoard(gridRows, gridCols, gridMines);
+    }
+}
@@ -0,0 +1,230 @@
+package minesweeper;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+// Append-only record of the moves of one game. The header names the board
+// (size, mine count and seed, which rebuild the exact layout) and each move is
+// two unsigned LEB128 varints: (millis since the previous move << 3 | action)
+// and the cell index (0 for undo and redo), so a typical move takes 2-4 bytes. Every move is written
+// through to the file, and a resumed game appends to its existing journal.
+//
+//   "MJNL" version rows cols mines (varints) seed (8 bytes LE) then moves
+public class MoveJournal implements Closeable {
+    public static final Path DEFAULT_DIR = Paths.get(System.getProperty("user.home"), ".minesweeper", "journals");
+
+    public enum Action { REVEAL, FLAG, CHORD, UNDO, REDO }
+
+    private static final int MAGIC = 0x4C4E4A4D; // "MJNL"
+    private static final int VERSION = 2; // version 1 had no undo and 2 action bits
+    private static final int ACTION_BITS = 3;
+    private static final Action[] ACTIONS = Action.values();
+
+    private final FileChannel channel;
+    private final ByteBuffer buf = ByteBuffer.allocate(64).order(ByteOrder.LITTLE_ENDIAN);
+    private long lastNanos = System.nanoTime();
+
+    private MoveJournal(FileChannel channel) {
+        this.channel = channel;
+    }
+
+    public static Path fileFor(long seed) {
+        return DEFAULT_DIR.resolve(Long.toHexString(seed) + ".journal");
+    }
+
+    // starts a journal, or reopens one for appending if it is for the same board
+    public static MoveJournal open(Path file, BoardLogic board) throws IOException {
+        return open(file, board.getRows(), board.getCols(), board.getMines(), board.getSeed());
+    }
+
+    public static MoveJournal open(Path file, int rows, int cols, int mines, long seed) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null)
+            Files.createDirectories(parent);
+        if (Files.exists(file) && Files.size(file) > 0) {
+            Recording existing = read(file);
+            if (existing.rows != rows || existing.cols != cols || existing.mines != mines || existing.seed != seed)
+                throw new IOException(file + " is the journal of a different board");
+            if (existing.version != VERSION)
+                throw new IOException(file + " has an older version and cannot be appended to");
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE);
+            channel.truncate(existing.bytes); // drop a move left half-written by a crash
+            channel.position(existing.bytes);
+            return new MoveJournal(channel);
+        }
+        MoveJournal journal = new MoveJournal(FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING));
+        journal.buf.putInt(MAGIC);
+        journal.putVarint(VERSION);
+        journal.putVarint(rows);
+        journal.putVarint(cols);
+        journal.putVarint(mines);
+        journal.buf.putLong(seed);
+        journal.flush();
+        return journal;
+    }
+
+    // cell is row * cols + col; the delay is measured from the previous move
+    public void record(Action action, int cell) throws IOException {
+        long now = System.nanoTime();
+        long millis = (now - lastNanos) / 1_000_000;
+        lastNanos += millis * 1_000_000; // carry the sub-millisecond rest
+        record(action, cell, millis);
+    }
+
+    void record(Action action, int cell, long delayMillis) throws IOException {
+        putVarint(delayMillis << ACTION_BITS | action.ordinal());
+        putVarint(cell);
+        flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private void putVarint(long value) {
+        while ((value & ~0x7FL) != 0) {
+            buf.put((byte) (value & 0x7F | 0x80));
+            value >>>= 7;
+        }
+        buf.put((byte) value);
+    }
+
+    private void flush() throws IOException {
+        buf.flip();
+        while (buf.hasRemaining())
+            channel.write(buf);
+        buf.clear();
+    }
+
+    // a journal read back into parallel arrays, one entry per move
+    public static class Recording {
+        public final int version, rows, cols, mines;
+        public final long seed;
+        private long bytes; // up to the end of the last complete move
+        private boolean undoes;
+        private Action[] actions = new Action[64];
+        private int[] cells = new int[64];
+        private long[] delays = new long[64];
+        private int moves;
+
+        Recording(int version, int rows, int cols, int mines, long seed) {
+            this.version = version;
+            this.rows = rows;
+            this.cols = cols;
+            this.mines = mines;
+            this.seed = seed;
+        }
+
+        public long getBytes() {
+            return bytes;
+        }
+
+        public int getMoves() {
+            return moves;
+        }
+
+        public Action getAction(int move) {
+            return actions[move];
+        }
+
+        public int getCell(int move) {
+            return cells[move];
+        }
+
+        public long getDelayMillis(int move) {
+            return delays[move];
+        }
+
+        // the board as it was before the first move, with the game's undo
+        // history if the recording needs it
+        public BoardLogic newBoard() {
+            BoardLogic board = new BoardLogic(rows, cols, mines, seed);
+            if (undoes)
+                board.setHistoryLimit(BoardLogic.HISTORY_MOVES, BoardLogic.HISTORY_CELLS);
+            return board;
+        }
+
+        // plays one move; returns the number of cells it changed
+        public int apply(BoardLogic board, int move) {
+            int r = cells[move] / cols, c = cells[move] % cols;
+            switch (actions[move]) {
+                case REVEAL:
+                    return board.reveal(r, c);
+                case FLAG:
+                    return board.toggleFlag(r, c);
+                case CHORD:
+                    return board.chord(r, c);
+                case UNDO:
+                    return board.undo();
+                default:
+                    return board.redo();
+            }
+        }
+
+        private void add(Action action, int cell, long delay) {
+            if (moves == cells.length) {
+                actions = Arrays.copyOf(actions, moves * 2);
+                cells = Arrays.copyOf(cells, moves * 2);
+                delays = Arrays.copyOf(delays, moves * 2);
+            }
+            undoes |= action == Action.UNDO || action == Action.REDO;
+            actions[moves] = action;
+            cells[moves] = cell;
+            delays[moves++] = delay;
+        }
+    }
+
+    // a move cut short by a crash at the end of the file is dropped
+    public static Recording read(Path file) throws IOException {
+        ByteBuffer in = ByteBuffer.wrap(Files.readAllBytes(file)).order(ByteOrder.LITTLE_ENDIAN);
+        if (in.remaining() < 4 || in.getInt() != MAGIC)
+            throw new IOException(file + " is not a move journal");
+        try {
+            long version = getVarint(in);
+            if (version != VERSION && version != 1)
+                throw new IOException(file + " has unsupported version " + version);
+            int actionBits = version == 1 ? 2 : ACTION_BITS;
+            int rows = (int) getVarint(in), cols = (int) getVarint(in), mines = (int) getVarint(in);
+            Recording recording = new Recording((int) version, rows, cols, mines, in.getLong());
+            recording.bytes = in.position();
+            while (in.hasRemaining()) {
+                int start = in.position();
+                try {
+                    long head = getVarint(in);
+                    int cell = (int) getVarint(in);
+                    int action = (int) (head & ((1 << actionBits) - 1));
+                    if (cell < 0 || cell >= rows * cols || action >= ACTIONS.length)
+                        throw new IOException(file + " has an invalid move at byte " + start);
+                    recording.add(ACTIONS[action], cell, head >>> actionBits);
+                    recording.bytes = in.position();
+                } catch (BufferUnderflowException e) {
+                    break;
+                }
+            }
+            return recording;
+        } catch (BufferUnderflowException e) {
+            throw new IOException(file + " has a truncated header");
+        }
+    }
+
+    private static long getVarint(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0)
+                return value;
+        }
+    }
+}
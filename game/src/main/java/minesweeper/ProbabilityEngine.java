@@ -0,0 +1,401 @@
+package minesweeper;
+
+import java.util.*;
+
+// Exact mine probabilities for hidden cells when the solver has no certain move.
+// The frontier (unknown cells next to revealed numbers) is split into
+// independent components; each component's consistent mine layouts are
+// enumerated and counted per mine total, then all components and the interior
+// cells are weighted together against the global remaining-mine count.
+// Component results are cached by their exact constraints, so a move only
+// re-enumerates the components it touched, and uncached components are
+// enumerated in parallel.
+public class ProbabilityEngine {
+    // enumeration nodes per component before it is treated as unconstrained
+    private static final long MAX_NODES = 2_000_000;
+
+    private static class Component {
+        int[] cells;              // board indices
+        int[][] constraints;      // per constraint: local cell indices
+        int[] targets;            // mines remaining per constraint
+        double[] solutions;       // layouts per mine total
+        double[][] mineCounts;    // [mine total][local cell] layouts with that cell a mine
+        boolean exhausted;        // enumeration gave up; cells fall back to the interior rate
+    }
+
+    // identity of a component: its cells and every constraint on them
+    private static class Signature {
+        final int[] data;
+        final int hash;
+
+        Signature(int[] data) {
+            this.data = data;
+            this.hash = Arrays.hashCode(data);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Signature && Arrays.equals(data, ((Signature) o).data);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private final BoardLogic board;
+    private final Solver solver;
+    private final int rows, cols;
+    private final BitSet active = new BitSet(); // revealed numbers with a hidden neighbour
+    private Map<Signature, Component> cache = new HashMap<>();
+
+    private final float[] probability; // per cell, valid where frontier[i]
+    private final BitSet frontier = new BitSet();
+    private float interiorProbability;
+
+    public ProbabilityEngine(BoardLogic board, Solver solver) {
+        this.board = board;
+        this.solver = solver;
+        this.rows = board.getRows();
+        this.cols = board.getCols();
+        this.probability = new float[rows * cols];
+        for (int i = 0; i < rows * cols; i++)
+            refresh(i);
+    }
+
+    // feed the cells changed by the last move (BoardLogic.getChangedCells)
+    public void update(int[] changed, int count) {
+        for (int k = 0; k < count; k++) {
+            int r = changed[k] / cols, c = changed[k] % cols;
+            for (int nr = Math.max(r - 1, 0); nr <= Math.min(r + 1, rows - 1); nr++)
+                for (int nc = Math.max(c - 1, 0); nc <= Math.min(c + 1, cols - 1); nc++)
+                    refresh(nr * cols + nc);
+        }
+    }
+
+    public double getMineProbability(int row, int col) {
+        if (board.isRevealed(row, col) || solver.isKnownSafe(row, col))
+            return 0;
+        if (solver.isKnownMine(row, col))
+            return 1;
+        int i = row * cols + col;
+        return frontier.get(i) ? probability[i] : interiorProbability;
+    }
+
+    public void compute() {
+        // components over unknown frontier cells, joined through shared constraints
+        Map<Integer, Integer> slot = new HashMap<>();
+        List<Integer> cells = new ArrayList<>();
+        List<int[]> constraintCells = new ArrayList<>();
+        List<Integer> constraintTargets = new ArrayList<>();
+        int knownMines = 0;
+        BitSet seenHidden = new BitSet();
+        int[] scratch = new int[8];
+        for (int a = active.nextSetBit(0); a >= 0; a = active.nextSetBit(a + 1)) {
+            int r = a / cols, c = a % cols, n = 0, target = board.getAdjacentMines(r, c);
+            for (int nr = Math.max(r - 1, 0); nr <= Math.min(r + 1, rows - 1); nr++)
+                for (int nc = Math.max(c - 1, 0); nc <= Math.min(c + 1, cols - 1); nc++) {
+                    int j = nr * cols + nc;
+                    if (board.isRevealed(nr, nc))
+                        continue;
+                    boolean firstSeen = !seenHidden.get(j);
+                    seenHidden.set(j);
+                    if (solver.isKnownMine(nr, nc)) {
+                        target--;
+                        if (firstSeen)
+                            knownMines++;
+                    } else if (!solver.isKnownSafe(nr, nc)) {
+                        Integer s = slot.get(j);
+                        if (s == null) {
+                            s = cells.size();
+                            slot.put(j, s);
+                            cells.add(j);
+                        }
+                        scratch[n++] = s;
+                    }
+                }
+            if (n > 0) {
+                constraintCells.add(Arrays.copyOf(scratch, n));
+                constraintTargets.add(target);
+            }
+        }
+
+        int[] parent = new int[cells.size()];
+        for (int i = 0; i < parent.length; i++)
+            parent[i] = i;
+        for (int[] cc : constraintCells)
+            for (int k = 1; k < cc.length; k++)
+                parent[find(parent, cc[k])] = find(parent, cc[0]);
+
+        Map<Integer, List<Integer>> byRoot = new HashMap<>();
+        for (int k = 0; k < constraintCells.size(); k++)
+            byRoot.computeIfAbsent(find(parent, constraintCells.get(k)[0]), x -> new ArrayList<>()).add(k);
+
+        Map<Signature, Component> nextCache = new HashMap<>();
+        List<Component> components = new ArrayList<>();
+        List<Component> pending = new ArrayList<>();
+        for (List<Integer> group : byRoot.values()) {
+            Component comp = buildComponent(group, cells, constraintCells, constraintTargets);
+            Signature sig = signature(comp);
+            Component cached = cache.get(sig);
+            if (cached != null) {
+                comp = cached;
+            } else {
+                pending.add(comp);
+            }
+            nextCache.put(sig, comp);
+            components.add(comp);
+        }
+        pending.parallelStream().forEach(ProbabilityEngine::enumerate);
+        cache = nextCache;
+
+        int hidden = rows * cols - revealedCount();
+        int interior = hidden - seenHidden.cardinality();
+        int remaining = board.getMines() - knownMines;
+        combine(components, interior, remaining);
+    }
+
+    private void combine(List<Component> components, int interior, int remaining) {
+        for (int i = frontier.nextSetBit(0); i >= 0; i = frontier.nextSetBit(i + 1))
+            probability[i] = 0;
+        frontier.clear();
+
+        List<Component> exact = new ArrayList<>();
+        int exhaustedCells = 0;
+        for (Component comp : components) {
+            if (comp.exhausted)
+                exhaustedCells += comp.cells.length;
+            else
+                exact.add(comp);
+        }
+        // cells of components that were too large to enumerate count as interior
+        interior += exhaustedCells;
+
+        // mine-total distributions over components [0, i) and [i, n), so the
+        // distribution over all but one component is one convolution away
+        int count = exact.size();
+        double[][] prefix = new double[count + 1][];
+        double[][] suffix = new double[count + 1][];
+        prefix[0] = new double[]{1};
+        suffix[count] = new double[]{1};
+        for (int i = 0; i < count; i++)
+            prefix[i + 1] = convolve(prefix[i], exact.get(i).solutions);
+        for (int i = count - 1; i >= 0; i--)
+            suffix[i] = convolve(suffix[i + 1], exact.get(i).solutions);
+        double[] all = prefix[count];
+        double[] interiorWeight = interiorWeights(interior, remaining, all.length);
+
+        double expectedInterior = 0, total = 0;
+        for (int m = 0; m < all.length; m++) {
+            double w = all[m] * interiorWeight[m];
+            total += w;
+            if (interior > 0)
+                expectedInterior += w * (remaining - m) / interior;
+        }
+        interiorProbability = total > 0 ? (float) (expectedInterior / total) : 0;
+
+        for (int ci = 0; ci < count; ci++) {
+            Component comp = exact.get(ci);
+            double[] others = convolve(prefix[ci], suffix[ci + 1]);
+            // weight of each mine total k inside comp given everything outside it
+            double[] weight = new double[comp.solutions.length];
+            double norm = 0;
+            for (int k = 0; k < weight.length; k++) {
+                for (int m = 0; m < others.length; m++)
+                    if (k + m < interiorWeight.length)
+                        weight[k] += others[m] * interiorWeight[k + m];
+                norm += comp.solutions[k] * weight[k];
+            }
+            for (int x = 0; x < comp.cells.length; x++) {
+                double p = 0;
+                for (int k = 0; k < weight.length; k++)
+                    p += comp.mineCounts[k][x] * weight[k];
+                int i = comp.cells[x];
+                probability[i] = norm > 0 ? (float) (p / norm) : 0;
+                frontier.set(i);
+            }
+        }
+    }
+
+    // relative weight C(interior, remaining - m) for each frontier mine total m,
+    // scaled so the largest is 1 to stay within double range on huge boards
+    private static double[] interiorWeights(int interior, int remaining, int length) {
+        double[] log = new double[length];
+        double max = Double.NEGATIVE_INFINITY;
+        for (int m = 0; m < length; m++) {
+            int k = remaining - m;
+            if (k < 0 || k > interior) {
+                log[m] = Double.NEGATIVE_INFINITY;
+                continue;
+            }
+            log[m] = logBinomial(interior, k);
+            max = Math.max(max, log[m]);
+        }
+        double[] w = new double[length];
+        for (int m = 0; m < length; m++)
+            w[m] = log[m] == Double.NEGATIVE_INFINITY ? 0 : Math.exp(log[m] - max);
+        return w;
+    }
+
+    private static double logBinomial(int n, int k) {
+        k = Math.min(k, n - k);
+        double sum = 0;
+        for (int j = 1; j <= k; j++)
+            sum += Math.log((double) (n - k + j) / j);
+        return sum;
+    }
+
+    private static double[] convolve(double[] a, double[] b) {
+        double[] out = new double[a.length + b.length - 1];
+        double max = 0;
+        for (int i = 0; i < a.length; i++)
+            for (int j = 0; j < b.length; j++)
+                out[i + j] += a[i] * b[j];
+        for (double v : out)
+            max = Math.max(max, v);
+        if (max > 0)
+            for (int i = 0; i < out.length; i++)
+                out[i] /= max;
+        return out;
+    }
+
+    private Component buildComponent(List<Integer> group, List<Integer> cells,
+                                     List<int[]> constraintCells, List<Integer> constraintTargets) {
+        Map<Integer, Integer> local = new TreeMap<>();
+        for (int k : group)
+            for (int s : constraintCells.get(k))
+                local.put(cells.get(s), 0);
+        Component comp = new Component();
+        comp.cells = new int[local.size()];
+        int n = 0;
+        for (Map.Entry<Integer, Integer> e : local.entrySet()) {
+            e.setValue(n);
+            comp.cells[n++] = e.getKey();
+        }
+        comp.constraints = new int[group.size()][];
+        comp.targets = new int[group.size()];
+        for (int g = 0; g < group.size(); g++) {
+            int[] cc = constraintCells.get(group.get(g));
+            comp.constraints[g] = new int[cc.length];
+            for (int k = 0; k < cc.length; k++)
+                comp.constraints[g][k] = local.get(cells.get(cc[k]));
+            Arrays.sort(comp.constraints[g]);
+            comp.targets[g] = constraintTargets.get(group.get(g));
+        }
+        return comp;
+    }
+
+    private static Signature signature(Component comp) {
+        List<int[]> lines = new ArrayList<>();
+        for (int g = 0; g < comp.constraints.length; g++) {
+            int[] line = Arrays.copyOf(comp.constraints[g], comp.constraints[g].length + 1);
+            line[line.length - 1] = comp.targets[g];
+            lines.add(line);
+        }
+        lines.sort(Arrays::compare);
+        int size = comp.cells.length + 1;
+        for (int[] line : lines)
+            size += line.length + 1;
+        int[] data = new int[size];
+        int p = 0;
+        for (int cell : comp.cells)
+            data[p++] = cell;
+        data[p++] = -1;
+        for (int[] line : lines) {
+            for (int v : line)
+                data[p++] = v;
+            data[p++] = -1;
+        }
+        return new Signature(data);
+    }
+
+    // backtracking over the component's cells with running constraint sums
+    private static void enumerate(Component comp) {
+        int n = comp.cells.length;
+        int[][] cellConstraints = new int[n][];
+        int[] degree = new int[n];
+        for (int[] cc : comp.constraints)
+            for (int x : cc)
+                degree[x]++;
+        for (int x = 0; x < n; x++)
+            cellConstraints[x] = new int[degree[x]];
+        Arrays.fill(degree, 0);
+        for (int g = 0; g < comp.constraints.length; g++)
+            for (int x : comp.constraints[g])
+                cellConstraints[x][degree[x]++] = g;
+
+        int[] sum = new int[comp.constraints.length];
+        int[] open = new int[comp.constraints.length];
+        for (int g = 0; g < open.length; g++)
+            open[g] = comp.constraints[g].length;
+        comp.solutions = new double[n + 1];
+        comp.mineCounts = new double[n + 1][n];
+        boolean[] mine = new boolean[n];
+        long[] nodes = {0};
+        if (!search(comp, 0, 0, mine, sum, open, cellConstraints, nodes)) {
+            comp.exhausted = true;
+            comp.solutions = new double[]{1};
+            comp.mineCounts = new double[1][n];
+        }
+    }
+
+    private static boolean search(Component comp, int x, int mines, boolean[] mine, int[] sum, int[] open,
+                                  int[][] cellConstraints, long[] nodes) {
+        if (++nodes[0] > MAX_NODES)
+            return false;
+        if (x == mine.length) {
+            comp.solutions[mines]++;
+            for (int y = 0; y < mine.length; y++)
+                if (mine[y])
+                    comp.mineCounts[mines][y]++;
+            return true;
+        }
+        for (int v = 0; v <= 1; v++) {
+            boolean ok = true;
+            for (int g : cellConstraints[x]) {
+                sum[g] += v;
+                open[g]--;
+                if (sum[g] > comp.targets[g] || sum[g] + open[g] < comp.targets[g])
+                    ok = false;
+            }
+            mine[x] = v == 1;
+            boolean finished = !ok || search(comp, x + 1, mines + v, mine, sum, open, cellConstraints, nodes);
+            for (int g : cellConstraints[x]) {
+                sum[g] -= v;
+                open[g]++;
+            }
+            if (!finished)
+                return false;
+        }
+        mine[x] = false;
+        return true;
+    }
+
+    private static int find(int[] parent, int x) {
+        while (parent[x] != x) {
+            parent[x] = parent[parent[x]];
+            x = parent[x];
+        }
+        return x;
+    }
+
+    private void refresh(int i) {
+        int r = i / cols, c = i % cols;
+        boolean isActive = false;
+        if (board.isRevealed(r, c) && !board.isMine(r, c) && board.getAdjacentMines(r, c) > 0) {
+            for (int nr = Math.max(r - 1, 0); nr <= Math.min(r + 1, rows - 1) && !isActive; nr++)
+                for (int nc = Math.max(c - 1, 0); nc <= Math.min(c + 1, cols - 1); nc++)
+                    if (!board.isRevealed(nr, nc)) {
+                        isActive = true;
+                        break;
+                    }
+        }
+        active.set(i, isActive);
+    }
+
+    private int revealedCount() {
+        int safe = rows * cols - board.getMines();
+        return safe - board.getSafeCellsRemaining() + board.getMinesRevealed();
+    }
+}
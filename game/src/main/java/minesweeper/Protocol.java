@@ -0,0 +1,129 @@
+package minesweeper;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+// Wire format shared by GameServer and LoadClient. Every message is a 4-byte
+// length, a type byte and its fields (big-endian):
+//   client -> server
+//     NEW    rows:int cols:int mines:int seed:long   start a game as its player
+//     WATCH  game:int                                spectate a game
+//     MOVE   action:byte cell:int                    REVEAL, FLAG or CHORD
+//   server -> client
+//     GAME   game:int rows:int cols:int mines:int
+//     DELTA  move:int status:byte count:varint, then per changed cell in
+//            ascending order: gap from the previous cell:varint, value:byte
+//     ERROR  message:utf-8
+// A DELTA carries only the cells a move changed; a new spectator gets one
+// DELTA (move 0) with every cell that is no longer hidden.
+final class Protocol {
+    static final byte NEW = 1, WATCH = 2, MOVE = 3;
+    static final byte GAME = 4, DELTA = 5, ERROR = 6;
+
+    static final byte REVEAL = 0, FLAG = 1, CHORD = 2;
+    static final byte PLAYING = 0, WON = 1, LOST = 2;
+    // cell values in a DELTA besides the numbers 0-8
+    static final byte MINE = 9, FLAGGED = 10, HIDDEN = 11;
+
+    // Frame length limits per direction. A client never sends more than NEW,
+    // so the server drops a session that announces anything longer instead of
+    // buffering it; only the snapshot DELTA a client reads can be large.
+    static final int MAX_CLIENT_FRAME = 21;
+    static final int MAX_FRAME = 1 << 26;
+
+    private Protocol() {
+    }
+
+    static ByteBuffer newGame(int rows, int cols, int mines, long seed) {
+        return ByteBuffer.allocate(4 + 21).putInt(21).put(NEW).putInt(rows).putInt(cols).putInt(mines)
+                .putLong(seed).flip();
+    }
+
+    static ByteBuffer watch(int game) {
+        return ByteBuffer.allocate(4 + 5).putInt(5).put(WATCH).putInt(game).flip();
+    }
+
+    static ByteBuffer move(byte action, int cell) {
+        return ByteBuffer.allocate(4 + 6).putInt(6).put(MOVE).put(action).putInt(cell).flip();
+    }
+
+    static ByteBuffer game(int game, int rows, int cols, int mines) {
+        return ByteBuffer.allocate(4 + 17).putInt(17).put(GAME).putInt(game).putInt(rows).putInt(cols)
+                .putInt(mines).flip();
+    }
+
+    static ByteBuffer error(String message) {
+        byte[] text = message.getBytes(StandardCharsets.UTF_8);
+        return ByteBuffer.allocate(4 + 1 + text.length).putInt(1 + text.length).put(ERROR).put(text).flip();
+    }
+
+    // sorts cells[0..count) in place
+    static ByteBuffer delta(BoardLogic board, int move, int[] cells, int count) {
+        Arrays.sort(cells, 0, count);
+        ByteBuffer buf = ByteBuffer.allocate(4 + 1 + 4 + 1 + 5 + count * 6);
+        buf.position(4);
+        buf.put(DELTA).putInt(move).put(status(board));
+        putVarint(buf, count);
+        int cols = board.getCols(), previous = 0;
+        for (int k = 0; k < count; k++) {
+            putVarint(buf, cells[k] - previous);
+            previous = cells[k];
+            buf.put(value(board, cells[k] / cols, cells[k] % cols));
+        }
+        return buf.putInt(0, buf.position() - 4).flip();
+    }
+
+    static byte status(BoardLogic board) {
+        if (board.getMinesRevealed() > 0)
+            return LOST;
+        return board.isGameWon() ? WON : PLAYING;
+    }
+
+    static byte value(BoardLogic board, int r, int c) {
+        if (board.isRevealed(r, c))
+            return board.isMine(r, c) ? MINE : (byte) board.getAdjacentMines(r, c);
+        return board.isFlagged(r, c) ? FLAGGED : HIDDEN;
+    }
+
+    // the payload (type byte first) of the next complete frame, or null; the
+    // buffer is in read mode and its position moves past the frame
+    static ByteBuffer nextFrame(ByteBuffer in, int maxLength) {
+        if (in.remaining() < 4)
+            return null;
+        int length = in.getInt(in.position());
+        if (length <= 0 || length > maxLength)
+            throw new IllegalArgumentException("bad frame length " + length);
+        if (in.remaining() < 4 + length)
+            return null;
+        ByteBuffer payload = in.slice(in.position() + 4, length);
+        in.position(in.position() + 4 + length);
+        return payload;
+    }
+
+    // a write-mode buffer with room for at least one more byte, keeping its contents
+    static ByteBuffer ensureRoom(ByteBuffer in) {
+        if (in.hasRemaining())
+            return in;
+        ByteBuffer bigger = ByteBuffer.allocate(in.capacity() * 2);
+        return bigger.put(in.flip());
+    }
+
+    static void putVarint(ByteBuffer buf, int value) {
+        while ((value & ~0x7F) != 0) {
+            buf.put((byte) (value & 0x7F | 0x80));
+            value >>>= 7;
+        }
+        buf.put((byte) value);
+    }
+
+    static int getVarint(ByteBuffer buf) {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = buf.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0)
+                return value;
+        }
+    }
+}
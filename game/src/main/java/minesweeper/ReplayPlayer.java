@@ -0,0 +1,97 @@
+package minesweeper;
+
+import java.awt.Dimension;
+import java.awt.GraphicsEnvironment;
+import java.awt.Rectangle;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import javax.swing.*;
+
+// Plays back a MoveJournal. By default the game is shown in a window with the
+// recorded pauses between moves; with --fast every move is applied headless
+// and the replay rate and journal size are reported.
+//
+//   java -cp game/target/classes minesweeper.ReplayPlayer <journal> [--fast]
+public class ReplayPlayer {
+    private static final int TILE_SIZE = 40;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("usage: ReplayPlayer <journal> [--fast]");
+            System.exit(2);
+        }
+        Path file = Paths.get(args[0]);
+        MoveJournal.Recording recording = MoveJournal.read(file);
+        if (args.length > 1 && args[1].equals("--fast"))
+            replayFast(recording);
+        else
+            SwingUtilities.invokeLater(() -> replayInWindow(file, recording));
+    }
+
+    // returns the board after the last move
+    public static BoardLogic replayFast(MoveJournal.Recording recording) {
+        long start = System.nanoTime();
+        BoardLogic board = recording.newBoard();
+        for (int k = 0; k < recording.getMoves(); k++)
+            recording.apply(board, k);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%d moves in %.1f ms: %.0f moves/s; journal %d bytes (%.2f bytes/move)%n",
+                recording.getMoves(), seconds * 1000, recording.getMoves() / seconds,
+                recording.getBytes(), (double) recording.getBytes() / Math.max(recording.getMoves(), 1));
+        System.out.println(outcome(board));
+        return board;
+    }
+
+    private static void replayInWindow(Path file, MoveJournal.Recording recording) {
+        BoardLogic board = recording.newBoard();
+        Rectangle screen = GraphicsEnvironment.getLocalGraphicsEnvironment().getMaximumWindowBounds();
+        Dimension limit = new Dimension(Math.max(screen.width - 60, 200), Math.max(screen.height - 100, 200));
+        BoardView view = new BoardView(board,
+                BoardView.fitTileSize(board.getRows(), board.getCols(), limit.width, limit.height, TILE_SIZE), (row, col, e) -> {
+        });
+        view.setViewportLimit(limit);
+        JFrame frame = new JFrame("Replay - " + file.getFileName());
+        frame.setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+        frame.add(new JScrollPane(view));
+        frame.pack();
+        frame.setLocationRelativeTo(null);
+        frame.setVisible(true);
+
+        // one single-shot timer, re-armed with the next move's recorded delay
+        int[] next = {0};
+        Timer timer = new Timer(0, null);
+        timer.setRepeats(false);
+        timer.addActionListener(e -> {
+            int move = next[0]++;
+            int changed = recording.apply(board, move);
+            view.repaintCells(board.getChangedCells(), changed);
+            int[] cells = board.getChangedCells();
+            if (board.getMinesRevealed() == 0)
+                view.setExploded(-1, -1); // an undo took the losing move back
+            for (int k = 0; k < changed; k++) {
+                int r = cells[k] / board.getCols(), c = cells[k] % board.getCols();
+                if (board.isRevealed(r, c) && board.isMine(r, c)) {
+                    view.setExploded(r, c);
+                    break;
+                }
+            }
+            if (next[0] < recording.getMoves() && frame.isDisplayable()) {
+                timer.setInitialDelay((int) Math.min(recording.getDelayMillis(next[0]), Integer.MAX_VALUE));
+                timer.start();
+            } else {
+                frame.setTitle("Replay - " + file.getFileName() + " - " + outcome(board));
+            }
+        });
+        if (recording.getMoves() > 0) {
+            timer.setInitialDelay((int) Math.min(recording.getDelayMillis(0), Integer.MAX_VALUE));
+            timer.start();
+        }
+    }
+
+    private static String outcome(BoardLogic board) {
+        if (board.getMinesRevealed() > 0)
+            return "lost";
+        return board.isGameWon() ? "won" : "unfinished";
+    }
+}
@@ -0,0 +1,120 @@
+package minesweeper;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+// A game on disk: a 40-byte little-endian header followed by three bit planes
+// (mines, revealed, flagged) holding one bit per cell, so a 100M-cell board
+// takes 37.5 MB. Small files go through a heap buffer; from DIRECT_MIN_BYTES
+// up through a direct buffer that the channel fills or drains without a copy
+// through the heap, and the planes are read and written in it as long words.
+// The file is never memory-mapped: a mapping outlives the channel until the
+// buffer is collected, and on Windows a mapped file cannot be deleted or
+// replaced, which Continue and every save do right afterwards.
+//
+//   0 magic   4 CRC32C of bytes 8..end   8 version   12 rows   16 cols
+//  20 mines  24 seed   32 elapsed millis   40 planes, each ceil(cells / 64) longs
+public class SavedGame {
+    public static final Path DEFAULT_FILE = Paths.get(System.getProperty("user.home"), ".minesweeper", "save.bin");
+
+    private static final int MAGIC = 0x454E494D; // "MINE"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 40;
+    private static final int CHECKSUM_FROM = 8;
+    private static final long DIRECT_MIN_BYTES = 1 << 20;
+
+    public final BoardLogic board;
+    public final long elapsedMillis;
+
+    private SavedGame(BoardLogic board, long elapsedMillis) {
+        this.board = board;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    // writes to a temporary file next to the target and renames it over the
+    // target, so an interrupted save never destroys the previous one
+    public static void save(Path file, BoardLogic board, long elapsedMillis) throws IOException {
+        int words = (board.getRows() * board.getCols() + 63) >>> 6;
+        long size = HEADER_BYTES + 3L * words * Long.BYTES;
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null)
+            Files.createDirectories(parent);
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buf = buffer(size);
+            buf.order(ByteOrder.LITTLE_ENDIAN);
+            buf.putInt(0, MAGIC);
+            buf.putInt(8, VERSION);
+            buf.putInt(12, board.getRows());
+            buf.putInt(16, board.getCols());
+            buf.putInt(20, board.getMines());
+            buf.putLong(24, board.getSeed());
+            buf.putLong(32, elapsedMillis);
+            board.writeBits(plane(buf, 0, words), plane(buf, 1, words), plane(buf, 2, words));
+            buf.putInt(4, checksum(buf, size));
+            while (buf.hasRemaining())
+                channel.write(buf);
+            channel.force(false);
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public static SavedGame load(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES)
+                throw new IOException(file + " is not a saved game");
+            if (size > Integer.MAX_VALUE)
+                throw new IOException(file + " is not a saved game");
+            ByteBuffer buf = buffer(size);
+            while (buf.hasRemaining() && channel.read(buf) >= 0) {
+            }
+            if (buf.hasRemaining())
+                throw new IOException(file + " is truncated");
+            buf.order(ByteOrder.LITTLE_ENDIAN);
+            if (buf.getInt(0) != MAGIC)
+                throw new IOException(file + " is not a saved game");
+            if (buf.getInt(8) != VERSION)
+                throw new IOException(file + " has unsupported version " + buf.getInt(8));
+            int rows = buf.getInt(12), cols = buf.getInt(16), mines = buf.getInt(20);
+            if (rows <= 0 || cols <= 0 || (long) rows * cols > Integer.MAX_VALUE)
+                throw new IOException(file + " has invalid size " + rows + "x" + cols);
+            int words = (int) (((long) rows * cols + 63) >>> 6);
+            if (size != HEADER_BYTES + 3L * words * Long.BYTES)
+                throw new IOException(file + " is truncated");
+            if (buf.getInt(4) != checksum(buf, size))
+                throw new IOException(file + " is corrupt (checksum mismatch)");
+
+            BoardLogic board = new BoardLogic(rows, cols, buf.getLong(24),
+                    plane(buf, 0, words), plane(buf, 1, words), plane(buf, 2, words));
+            if (board.getMines() != mines)
+                throw new IOException(file + " is corrupt (mine count mismatch)");
+            return new SavedGame(board, buf.getLong(32));
+        }
+    }
+
+    private static ByteBuffer buffer(long size) {
+        return size >= DIRECT_MIN_BYTES ? ByteBuffer.allocateDirect((int) size) : ByteBuffer.allocate((int) size);
+    }
+
+    private static LongBuffer plane(ByteBuffer buf, int index, int words) {
+        return buf.slice(HEADER_BYTES + index * words * Long.BYTES, words * Long.BYTES)
+                .order(ByteOrder.LITTLE_ENDIAN).asLongBuffer();
+    }
+
+    private static int checksum(ByteBuffer buf, long size) {
+        CRC32C crc = new CRC32C();
+        crc.update(buf.slice(CHECKSUM_FROM, (int) size - CHECKSUM_FROM));
+        return (int) crc.getValue();
+    }
+}
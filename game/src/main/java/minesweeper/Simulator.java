@@ -0,0 +1,251 @@
+package minesweeper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+// Headless runner that plays many games against BoardLogic with a pluggable
+// strategy, one worker per core with its own split RNG, and reports throughput,
+// win rate and the latency distribution of each engine operation.
+//
+//   java -cp game/target/classes minesweeper.Simulator [gamesPerDifficulty] [random|solver] [seed]
+public class Simulator {
+    public interface Strategy {
+        void start(BoardLogic board);
+
+        // cell to reveal (row * cols + col), or -1 to resign
+        int nextCell(SplittableRandom rng);
+
+        // called after every reveal with the count from BoardLogic.reveal
+        void moved(int changedCount);
+    }
+
+    // clicks a random hidden cell every move
+    public static class RandomStrategy implements Strategy {
+        private BoardLogic board;
+
+        public void start(BoardLogic board) {
+            this.board = board;
+        }
+
+        public int nextCell(SplittableRandom rng) {
+            return randomHidden(board, rng, null);
+        }
+
+        public void moved(int changedCount) {
+        }
+    }
+
+    // plays the Solver's deductions and guesses randomly when it has none
+    public static class SolverStrategy implements Strategy {
+        private BoardLogic board;
+        private Solver solver;
+
+        public void start(BoardLogic board) {
+            this.board = board;
+            this.solver = new Solver(board);
+        }
+
+        public int nextCell(SplittableRandom rng) {
+            int cell = solver.nextSafeCell();
+            return cell >= 0 ? cell : randomHidden(board, rng, solver);
+        }
+
+        public void moved(int changedCount) {
+            solver.update(board.getChangedCells(), changedCount);
+        }
+    }
+
+    enum Op { GENERATE, REVEAL, WIN_CHECK, STRATEGY }
+
+    // Nanosecond buckets, each power of two split into SUB_BUCKETS linear
+    // steps (as in HdrHistogram), so a percentile is within 1/16 of the true
+    // value; cheap enough to record every call.
+    static class Histogram {
+        private static final int SUB_BITS = 4;
+        private static final int SUB_BUCKETS = 1 << SUB_BITS;
+
+        final long[] buckets = new long[(64 - SUB_BITS + 1) * SUB_BUCKETS];
+        long count, totalNanos, maxNanos;
+
+        void record(long nanos) {
+            buckets[index(Math.max(nanos, 0))]++;
+            count++;
+            totalNanos += nanos;
+            maxNanos = Math.max(maxNanos, nanos);
+        }
+
+        void merge(Histogram other) {
+            for (int i = 0; i < buckets.length; i++)
+                buckets[i] += other.buckets[i];
+            count += other.count;
+            totalNanos += other.totalNanos;
+            maxNanos = Math.max(maxNanos, other.maxNanos);
+        }
+
+        void reset() {
+            Arrays.fill(buckets, 0);
+            count = totalNanos = maxNanos = 0;
+        }
+
+        // values below SUB_BUCKETS have a bucket each; above, the top SUB_BITS
+        // bits after the leading one pick the step within its power of two
+        private static int index(long nanos) {
+            if (nanos < SUB_BUCKETS)
+                return (int) nanos;
+            int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+            int sub = (int) (nanos >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+            return (exponent - SUB_BITS + 1) * SUB_BUCKETS + sub;
+        }
+
+        // the largest value that falls in bucket i
+        private static long upperBound(int i) {
+            if (i < SUB_BUCKETS)
+                return i;
+            int exponent = i / SUB_BUCKETS + SUB_BITS - 1, sub = i % SUB_BUCKETS;
+            return ((long) (SUB_BUCKETS + sub + 1) << (exponent - SUB_BITS)) - 1;
+        }
+
+        // upper bound of the bucket holding the q-th quantile, at most the max
+        long percentile(double q) {
+            long rank = (long) Math.ceil(q * count), seen = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                seen += buckets[i];
+                if (seen >= rank && seen > 0)
+                    return Math.min(upperBound(i), maxNanos);
+            }
+            return maxNanos;
+        }
+    }
+
+    static class Result {
+        long games, wins, moves;
+        final Histogram[] ops = new Histogram[Op.values().length];
+
+        Result() {
+            for (int i = 0; i < ops.length; i++)
+                ops[i] = new Histogram();
+        }
+
+        void merge(Result other) {
+            games += other.games;
+            wins += other.wins;
+            moves += other.moves;
+            for (int i = 0; i < ops.length; i++)
+                ops[i].merge(other.ops[i]);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        long games = args.length > 0 ? Long.parseLong(args[0]) : 100_000;
+        String strategyName = args.length > 1 ? args[1] : "solver";
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : System.nanoTime();
+        Supplier<Strategy> strategy = strategyName.equals("random") ? RandomStrategy::new : SolverStrategy::new;
+        int threads = Runtime.getRuntime().availableProcessors();
+
+        System.out.printf("%d games per difficulty, strategy %s, %d threads, seed %d%n",
+                games, strategyName, threads, seed);
+        int[][] difficulties = {{9, 9, 10}, {16, 16, 40}, {16, 30, 99}};
+        String[] names = {"Easy", "Medium", "Hard"};
+        for (int d = 0; d < difficulties.length; d++) {
+            int[] size = difficulties[d];
+            long start = System.nanoTime();
+            Result result = run(size[0], size[1], size[2], games, threads, strategy, seed + d);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("%n%s: win rate %.2f%%, %.0f games/s, %.0f moves/s%n", names[d],
+                    100.0 * result.wins / result.games, result.games / seconds, result.moves / seconds);
+            System.out.printf("  %-10s %10s %8s %8s %8s %10s%n", "op", "calls", "mean", "p50", "p99", "max");
+            for (Op op : Op.values()) {
+                Histogram h = result.ops[op.ordinal()];
+                System.out.printf("  %-10s %10d %7.0fns %7dns %7dns %9dns%n", op, h.count,
+                        h.count == 0 ? 0.0 : (double) h.totalNanos / h.count,
+                        h.percentile(0.5), h.percentile(0.99), h.maxNanos);
+            }
+        }
+    }
+
+    public static Result run(int rows, int cols, int mines, long games, int threads,
+                             Supplier<Strategy> strategies, long seed) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        SplittableRandom root = new SplittableRandom(seed);
+        List<Future<Result>> parts = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            long share = games / threads + (t < games % threads ? 1 : 0);
+            SplittableRandom rng = root.split();
+            parts.add(pool.submit(() -> play(rows, cols, mines, share, strategies.get(), rng)));
+        }
+        Result total = new Result();
+        for (Future<Result> part : parts)
+            total.merge(part.get());
+        pool.shutdown();
+        return total;
+    }
+
+    static Result play(int rows, int cols, int mines, long games, Strategy strategy, SplittableRandom rng) {
+        Result result = new Result();
+        Histogram generate = result.ops[Op.GENERATE.ordinal()];
+        Histogram reveal = result.ops[Op.REVEAL.ordinal()];
+        Histogram winCheck = result.ops[Op.WIN_CHECK.ordinal()];
+        Histogram decide = result.ops[Op.STRATEGY.ordinal()];
+        for (long g = 0; g < games; g++) {
+            long t0 = System.nanoTime();
+            BoardLogic board = new BoardLogic(rows, cols, mines, rng);
+            generate.record(System.nanoTime() - t0);
+            strategy.start(board);
+            while (true) {
+                t0 = System.nanoTime();
+                int cell = strategy.nextCell(rng);
+                decide.record(System.nanoTime() - t0);
+                if (cell < 0)
+                    break;
+
+                t0 = System.nanoTime();
+                int changed = board.reveal(cell / cols, cell % cols);
+                reveal.record(System.nanoTime() - t0);
+                result.moves++;
+                if (board.getMinesRevealed() > 0)
+                    break;
+
+                t0 = System.nanoTime();
+                boolean won = board.isGameWon();
+                winCheck.record(System.nanoTime() - t0);
+                if (won) {
+                    result.wins++;
+                    break;
+                }
+
+                t0 = System.nanoTime();
+                strategy.moved(changed);
+                decide.record(System.nanoTime() - t0);
+            }
+            result.games++;
+        }
+        return result;
+    }
+
+    // a random hidden cell not known to be a mine, or -1 if none is left
+    static int randomHidden(BoardLogic board, SplittableRandom rng, Solver solver) {
+        int rows = board.getRows(), cols = board.getCols(), n = rows * cols;
+        for (int tries = 0; tries < 32; tries++) {
+            int i = rng.nextInt(n);
+            if (isCandidate(board, solver, i / cols, i % cols))
+                return i;
+        }
+        int from = rng.nextInt(n);
+        for (int k = 0; k < n; k++) {
+            int i = (from + k) % n;
+            if (isCandidate(board, solver, i / cols, i % cols))
+                return i;
+        }
+        return -1;
+    }
+
+    private static boolean isCandidate(BoardLogic board, Solver solver, int r, int c) {
+        return !board.isRevealed(r, c) && (solver == null || !solver.isKnownMine(r, c));
+    }
+}
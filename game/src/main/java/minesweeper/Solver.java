@@ -0,0 +1,213 @@
+package minesweeper;
+
+import java.util.Arrays;
+
+// Deduces certain-safe and certain-mine cells from what the player can see
+// (revealed numbers only; flags are not trusted). Work is driven by a queue of
+// revealed number cells whose constraints changed, so after each move only the
+// cells around that move are re-examined. Two rules are applied:
+//  - single point: a number whose remaining mines equal 0 or its unknown count
+//  - subset: if A's unknowns are a subset of a nearby B's, the cells only B
+//    sees hold exactly remB - remA mines
+public class Solver {
+    private static final byte SAFE = 1;
+    private static final byte MINE = 2;
+    private static final byte QUEUED = 4;
+
+    private final BoardLogic board;
+    private final int rows, cols;
+    private final byte[] state;
+
+    private int[] queue = new int[64]; // revealed number cells to re-examine
+    private int queueSize;
+    private int[] safeCells = new int[64]; // deduced, handed out by nextSafeCell
+    private int safeCount;
+    private int[] mineCells = new int[64];
+    private int mineCount;
+
+    // scratch for the unknown neighbours of the two cells being compared
+    private final int[] unknownA = new int[8];
+    private final int[] unknownB = new int[8];
+    private final int[] diff = new int[8];
+
+    public Solver(BoardLogic board) {
+        this.board = board;
+        this.rows = board.getRows();
+        this.cols = board.getCols();
+        this.state = new byte[rows * cols];
+        for (int i = 0; i < state.length; i++)
+            if (board.isRevealed(i / cols, i % cols))
+                enqueue(i);
+        propagate();
+    }
+
+    // feed the cells changed by the last move (BoardLogic.getChangedCells)
+    public void update(int[] changed, int count) {
+        for (int k = 0; k < count; k++) {
+            int i = changed[k];
+            int r = i / cols, c = i % cols;
+            if (!board.isRevealed(r, c))
+                continue;
+            for (int nr = Math.max(r - 1, 0); nr <= Math.min(r + 1, rows - 1); nr++)
+                for (int nc = Math.max(c - 1, 0); nc <= Math.min(c + 1, cols - 1); nc++)
+                    enqueue(nr * cols + nc);
+        }
+        propagate();
+    }
+
+    public boolean isKnownSafe(int row, int col) {
+        return (state[row * cols + col] & SAFE) != 0;
+    }
+
+    public boolean isKnownMine(int row, int col) {
+        return (state[row * cols + col] & MINE) != 0;
+    }
+
+    // a deduced safe cell that is still hidden (row * cols + col), or -1
+    public int nextSafeCell() {
+        while (safeCount > 0) {
+            int i = safeCells[safeCount - 1];
+            if (!board.isRevealed(i / cols, i % cols))
+                return i;
+            safeCount--;
+        }
+        return -1;
+    }
+
+    // a deduced mine that is not flagged yet, or -1
+    public int nextMineCell() {
+        while (mineCount > 0) {
+            int i = mineCells[mineCount - 1];
+            if (!board.isFlagged(i / cols, i % cols))
+                return i;
+            mineCount--;
+        }
+        return -1;
+    }
+
+    private void enqueue(int i) {
+        int r = i / cols, c = i % cols;
+        if ((state[i] & QUEUED) != 0 || !board.isRevealed(r, c) || board.isMine(r, c)
+                || board.getAdjacentMines(r, c) == 0)
+            return;
+        state[i] |= QUEUED;
+        if (queueSize == queue.length)
+            queue = Arrays.copyOf(queue, queueSize * 2);
+        queue[queueSize++] = i;
+    }
+
+    private void propagate() {
+        while (queueSize > 0) {
+            int a = queue[--queueSize];
+            state[a] &= ~QUEUED;
+            examine(a);
+        }
+    }
+
+    private void examine(int a) {
+        int unknownCountA = collectUnknown(a, unknownA);
+        if (unknownCountA == 0)
+            return;
+        int remA = remainingMines(a);
+        if (remA == 0) {
+            markAll(unknownA, unknownCountA, SAFE);
+            return;
+        }
+        if (remA == unknownCountA) {
+            markAll(unknownA, unknownCountA, MINE);
+            return;
+        }
+
+        int r = a / cols, c = a % cols;
+        for (int br = Math.max(r - 2, 0); br <= Math.min(r + 2, rows - 1); br++)
+            for (int bc = Math.max(c - 2, 0); bc <= Math.min(c + 2, cols - 1); bc++) {
+                int b = br * cols + bc;
+                if (b == a || !board.isRevealed(br, bc) || board.isMine(br, bc)
+                        || board.getAdjacentMines(br, bc) == 0)
+                    continue;
+                int unknownCountB = collectUnknown(b, unknownB);
+                if (unknownCountB == 0)
+                    continue;
+                int remB = remainingMines(b);
+                // deductions outside a's unknowns leave a's constraint as it is
+                applySubset(unknownA, unknownCountA, remA, unknownB, unknownCountB, remB);
+                if (applySubset(unknownB, unknownCountB, remB, unknownA, unknownCountA, remA))
+                    return; // a's unknowns shrank; it has been re-queued
+            }
+    }
+
+    // if small is a subset of large, the extra cells of large hold remLarge - remSmall mines
+    private boolean applySubset(int[] small, int smallCount, int remSmall, int[] large, int largeCount, int remLarge) {
+        if (smallCount >= largeCount)
+            return false;
+        int diffCount = 0;
+        int matched = 0;
+        for (int k = 0; k < largeCount; k++) {
+            if (contains(small, smallCount, large[k]))
+                matched++;
+            else
+                diff[diffCount++] = large[k];
+        }
+        if (matched != smallCount)
+            return false;
+        int extra = remLarge - remSmall;
+        if (extra == 0) {
+            markAll(diff, diffCount, SAFE);
+            return true;
+        }
+        if (extra == diffCount) {
+            markAll(diff, diffCount, MINE);
+            return true;
+        }
+        return false;
+    }
+
+    private static boolean contains(int[] cells, int count, int i) {
+        for (int k = 0; k < count; k++)
+            if (cells[k] == i)
+                return true;
+        return false;
+    }
+
+    // hidden neighbours not yet deduced either way
+    private int collectUnknown(int i, int[] out) {
+        int r = i / cols, c = i % cols, n = 0;
+        for (int nr = Math.max(r - 1, 0); nr <= Math.min(r + 1, rows - 1); nr++)
+            for (int nc = Math.max(c - 1, 0); nc <= Math.min(c + 1, cols - 1); nc++) {
+                int j = nr * cols + nc;
+                if (!board.isRevealed(nr, nc) && (state[j] & (SAFE | MINE)) == 0)
+                    out[n++] = j;
+            }
+        return n;
+    }
+
+    private int remainingMines(int i) {
+        int r = i / cols, c = i % cols, known = 0;
+        for (int nr = Math.max(r - 1, 0); nr <= Math.min(r + 1, rows - 1); nr++)
+            for (int nc = Math.max(c - 1, 0); nc <= Math.min(c + 1, cols - 1); nc++)
+                if ((state[nr * cols + nc] & MINE) != 0)
+                    known++;
+        return board.getAdjacentMines(r, c) - known;
+    }
+
+    private void markAll(int[] cells, int count, byte mark) {
+        for (int k = 0; k < count; k++) {
+            int i = cells[k];
+            state[i] |= mark;
+            if (mark == SAFE) {
+                if (safeCount == safeCells.length)
+                    safeCells = Arrays.copyOf(safeCells, safeCount * 2);
+                safeCells[safeCount++] = i;
+            } else {
+                if (mineCount == mineCells.length)
+                    mineCells = Arrays.copyOf(mineCells, mineCount * 2);
+                mineCells[mineCount++] = i;
+            }
+            // every revealed number around the deduced cell now has a tighter constraint
+            int r = i / cols, c = i % cols;
+            for (int nr = Math.max(r - 1, 0); nr <= Math.min(r + 1, rows - 1); nr++)
+                for (int nc = Math.max(c - 1, 0); nc <= Math.min(c + 1, cols - 1); nc++)
+                    enqueue(nr * cols + nc);
+        }
+    }
+}
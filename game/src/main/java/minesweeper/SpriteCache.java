@@ -0,0 +1,86 @@
+package minesweeper;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import javax.imageio.ImageIO;
+
+// Tile sprites decoded once per process. For each tile size the 13 tiles are
+// pre-scaled into one atlas image (one tile per column) compatible with the
+// screen, rendered at the display's scale factor so HiDPI screens stay sharp.
+public class SpriteCache {
+    public static final int EMPTY = 0; // 1-8 are the number tiles
+    public static final int MINE = 9;
+    public static final int FLAG = 10;
+    public static final int UNKNOWN = 11;
+    public static final int EXPLODED = 12;
+    private static final int TILE_COUNT = 13;
+
+    private static final String[] FILES = {
+        "TileEmpty", "Tile1", "Tile2", "Tile3", "Tile4", "Tile5", "Tile6", "Tile7", "Tile8",
+        "TileMine", "TileFlag", "TileUnknown", "TileExploded"
+    };
+
+    private static BufferedImage[] sources;
+    private static final Map<Integer, SpriteCache> bySize = new HashMap<>();
+
+    private final int tileSize;
+    private final int pixelSize; // tile edge in device pixels
+    private final BufferedImage atlas;
+
+    private SpriteCache(int tileSize) {
+        long start = Metrics.start();
+        this.tileSize = tileSize;
+        GraphicsConfiguration gc = GraphicsEnvironment.isHeadless() ? null
+                : GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration();
+        double scale = gc == null ? 1.0 : gc.getDefaultTransform().getScaleX();
+        this.pixelSize = (int) Math.ceil(tileSize * scale);
+        int width = pixelSize * TILE_COUNT;
+        atlas = gc == null
+                ? new BufferedImage(width, pixelSize, BufferedImage.TYPE_INT_ARGB)
+                : gc.createCompatibleImage(width, pixelSize, Transparency.TRANSLUCENT);
+
+        Graphics2D g = atlas.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        BufferedImage[] tiles = sources();
+        for (int t = 0; t < TILE_COUNT; t++)
+            if (tiles[t] != null)
+                g.drawImage(tiles[t], t * pixelSize, 0, pixelSize, pixelSize, null);
+        g.dispose();
+        Metrics.SPRITE_ATLAS.recordSince(start);
+    }
+
+    // shared atlas for the given tile size, built on first use
+    public static synchronized SpriteCache get(int tileSize) {
+        return bySize.computeIfAbsent(tileSize, SpriteCache::new);
+    }
+
+    private static BufferedImage[] sources() {
+        if (sources == null) {
+            sources = new BufferedImage[TILE_COUNT];
+            for (int t = 0; t < TILE_COUNT; t++) {
+                long start = Metrics.start();
+                try {
+                    sources[t] = ImageIO.read(new File("assets/Sprites/" + FILES[t] + ".png"));
+                    Metrics.SPRITE_LOAD.recordSince(start);
+                } catch (IOException e) {
+                    System.err.println("Error loading sprite " + FILES[t] + ": " + e.getMessage());
+                }
+            }
+        }
+        return sources;
+    }
+
+    public int getTileSize() {
+        return tileSize;
+    }
+
+    public void draw(Graphics g, int tile, int x, int y) {
+        int sx = tile * pixelSize;
+        g.drawImage(atlas, x, y, x + tileSize, y + tileSize, sx, 0, sx + pixelSize, pixelSize, null);
+    }
+}
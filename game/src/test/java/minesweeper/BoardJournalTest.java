@@ -0,0 +1,88 @@
+package minesweeper;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.Scanner;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+// a console game replayed from its journal through BoardLogic ends the same
+class BoardJournalTest {
+    private static final int ROWS = 30, COLS = 30, MINES = 60;
+    private static final long SEED = 12345;
+
+    @Test
+    void replayMatchesConsoleGame(@TempDir Path dir) throws IOException {
+        // a zero cell with the largest opening, and a safe cell inside that opening
+        BoardLogic scan = new BoardLogic(ROWS, COLS, MINES, SEED);
+        int zero = -1, best = 0;
+        for (int i = 0; i < ROWS * COLS; i++) {
+            int r = i / COLS, c = i % COLS;
+            if (scan.isMine(r, c) || scan.isRevealed(r, c) || scan.getAdjacentMines(r, c) > 0)
+                continue;
+            int opened = scan.reveal(r, c);
+            if (opened > best) {
+                best = opened;
+                zero = i;
+            }
+        }
+        BoardLogic opening = new BoardLogic(ROWS, COLS, MINES, SEED);
+        int opened = opening.reveal(zero / COLS, zero % COLS);
+        int inside = opening.getChangedCells()[opened / 2];
+
+        String flag = "f " + inside / COLS + " " + inside % COLS + "\n";
+        String open = "r " + zero / COLS + " " + zero % COLS + "\n";
+        String script = flag
+                + "r " + inside / COLS + " " + inside % COLS + "\n" // flagged, nothing happens
+                + open
+                + open                                              // already revealed
+                + "f " + zero / COLS + " " + zero % COLS + "\n"     // revealed, cannot be flagged
+                + flag;                                             // takes the flag off
+
+        Path file = dir.resolve("game.journal");
+        Board board = new Board(ROWS, COLS, MINES, SEED);
+        PrintStream out = System.out;
+        try (MoveJournal journal = MoveJournal.open(file, ROWS, COLS, MINES, SEED)) {
+            System.setOut(new PrintStream(OutputStream.nullOutputStream())); // the board is drawn after every move
+            board.setJournal(journal);
+            board.play(new Scanner(script));
+        } finally {
+            System.setOut(out);
+        }
+
+        MoveJournal.Recording recording = MoveJournal.read(file);
+        assertEquals(3, recording.getMoves());
+        BoardLogic replay = recording.newBoard();
+        for (int k = 0; k < recording.getMoves(); k++)
+            recording.apply(replay, k);
+        assertFalse(replay.isRevealed(inside / COLS, inside % COLS), "the flood fill stopped at the flag");
+        for (int r = 0; r < ROWS; r++)
+            for (int c = 0; c < COLS; c++) {
+                char glyph = board.glyph(r, c);
+                assertEquals(glyph == 'F', replay.isFlagged(r, c), "flag at " + r + "," + c);
+                assertEquals(glyph != 'F' && glyph != '#', replay.isRevealed(r, c), "reveal at " + r + "," + c);
+            }
+    }
+
+    // scripted input may stop anywhere, without a trailing newline
+    @Test
+    void truncatedInputEndsTheGame(@TempDir Path dir) throws IOException {
+        PrintStream out = System.out;
+        try {
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+            for (String script : new String[] {"r", "r 1", "f 2 x", "r 1 1\nr", "r 1 1\nf 0"}) {
+                Board board = new Board(ROWS, COLS, MINES, SEED);
+                try (MoveJournal journal = MoveJournal.open(dir.resolve("truncated.journal"), ROWS, COLS, MINES, SEED)) {
+                    board.setJournal(journal);
+                    assertDoesNotThrow(() -> board.play(new Scanner(script)), script);
+                }
+            }
+        } finally {
+            System.setOut(out);
+        }
+    }
+}
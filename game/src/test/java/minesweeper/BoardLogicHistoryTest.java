@@ -0,0 +1,92 @@
+package minesweeper;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class BoardLogicHistoryTest {
+    private static final int ROWS = 16, COLS = 30, MINES = 99;
+
+    // A chord on a wrongly flagged number loses, and the frame then reveals
+    // every mine. One undo must take all of that back, on the live board and
+    // when the journal is replayed.
+    @Test
+    void lostChordUndoesAsOneMove(@TempDir Path dir) throws IOException {
+        for (long seed = 1; seed < 200; seed++) {
+            BoardLogic board = new BoardLogic(ROWS, COLS, MINES, seed);
+            board.setHistoryLimit(BoardLogic.HISTORY_MOVES, BoardLogic.HISTORY_CELLS);
+            int number = -1, wrongFlag = -1;
+            // a hidden safe neighbour to flag next to a "1" whose mine is elsewhere
+            for (int i = 0; i < ROWS * COLS && number < 0; i++) {
+                int r = i / COLS, c = i % COLS;
+                if (board.isMine(r, c) || board.getAdjacentMines(r, c) != 1)
+                    continue;
+                for (int nr = Math.max(r - 1, 0); nr <= Math.min(r + 1, ROWS - 1) && number < 0; nr++)
+                    for (int nc = Math.max(c - 1, 0); nc <= Math.min(c + 1, COLS - 1); nc++)
+                        if ((nr != r || nc != c) && !board.isMine(nr, nc)) {
+                            number = i;
+                            wrongFlag = nr * COLS + nc;
+                            break;
+                        }
+            }
+            if (number < 0)
+                continue;
+            int earlierFlag = firstMineAwayFrom(board, number);
+
+            Path file = dir.resolve(seed + ".journal");
+            try (MoveJournal journal = MoveJournal.open(file, board)) {
+                play(board, journal, MoveJournal.Action.FLAG, earlierFlag);
+                play(board, journal, MoveJournal.Action.REVEAL, number);
+                play(board, journal, MoveJournal.Action.FLAG, wrongFlag);
+                play(board, journal, MoveJournal.Action.CHORD, number);
+                assertTrue(board.getMinesRevealed() > 0);
+                board.revealAllMines(); // not journaled; part of the losing move
+                play(board, journal, MoveJournal.Action.UNDO, 0);
+            }
+            assertEquals(0, board.getMinesRevealed());
+            assertTrue(board.isFlagged(wrongFlag / COLS, wrongFlag % COLS));
+
+            MoveJournal.Recording recording = MoveJournal.read(file);
+            BoardLogic replay = recording.newBoard();
+            for (int k = 0; k < recording.getMoves(); k++)
+                recording.apply(replay, k);
+            for (int r = 0; r < ROWS; r++)
+                for (int c = 0; c < COLS; c++) {
+                    assertEquals(board.isRevealed(r, c), replay.isRevealed(r, c), "reveal at " + r + "," + c);
+                    assertEquals(board.isFlagged(r, c), replay.isFlagged(r, c), "flag at " + r + "," + c);
+                }
+            assertTrue(replay.isFlagged(earlierFlag / COLS, earlierFlag % COLS));
+
+            // redo brings back the chord and every mine in one step
+            assertTrue(board.redo() > 1);
+            assertEquals(MINES, board.getMinesRevealed());
+            assertFalse(board.canRedo());
+            return;
+        }
+        fail("no board with a chord to lose");
+    }
+
+    private static void play(BoardLogic board, MoveJournal journal, MoveJournal.Action action, int cell)
+            throws IOException {
+        journal.record(action, cell, 0);
+        int r = cell / COLS, c = cell % COLS;
+        switch (action) {
+            case REVEAL -> board.reveal(r, c);
+            case FLAG -> board.toggleFlag(r, c);
+            case CHORD -> board.chord(r, c);
+            case UNDO -> board.undo();
+            default -> board.redo();
+        }
+    }
+
+    private static int firstMineAwayFrom(BoardLogic board, int cell) {
+        int r0 = cell / COLS, c0 = cell % COLS;
+        for (int i = 0; i < ROWS * COLS; i++)
+            if (board.isMine(i / COLS, i % COLS) && (Math.abs(i / COLS - r0) > 1 || Math.abs(i % COLS - c0) > 1))
+                return i;
+        throw new AssertionError("no mine");
+    }
+}
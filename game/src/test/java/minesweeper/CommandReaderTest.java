@@ -0,0 +1,63 @@
+package minesweeper;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+
+class CommandReaderTest {
+    private static CommandReader reader(String text) {
+        return new CommandReader(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void readsCommandsCommentsAndBlankLines() throws IOException {
+        CommandReader reader = reader("r 1 2\n\n# note\nF 3 4 # trailing\n");
+        assertTrue(reader.next());
+        assertNull(reader.error);
+        assertEquals('r', reader.action);
+        assertEquals(1, reader.row);
+        assertEquals(2, reader.col);
+        assertTrue(reader.next());
+        assertEquals('f', reader.action);
+        assertEquals(4, reader.line);
+        assertEquals(3, reader.row);
+        assertEquals(4, reader.col);
+        assertFalse(reader.next());
+    }
+
+    // bytes of 0x80 and up (any UTF-8 beyond ASCII) are not the end of the input
+    @Test
+    void nonAsciiDoesNotEndTheInput() throws IOException {
+        CommandReader reader = reader("r 0 0\n# café\nr 1 1\nf 2 2 é\nr 3 3\n");
+        assertTrue(reader.next());
+        assertNull(reader.error);
+        assertTrue(reader.next());
+        assertNull(reader.error);
+        assertEquals(1, reader.row);
+        assertTrue(reader.next());
+        assertEquals("unexpected text after column", reader.error);
+        assertEquals(4, reader.line);
+        assertTrue(reader.next());
+        assertNull(reader.error);
+        assertEquals(3, reader.row);
+        assertFalse(reader.next());
+    }
+
+    @Test
+    void malformedLinesAreReportedAndSkipped() throws IOException {
+        CommandReader reader = reader("x 1 1\nr 1\nr 1234567890 1\nr 5 6");
+        assertTrue(reader.next());
+        assertEquals("unknown command", reader.error);
+        assertTrue(reader.next());
+        assertEquals("expected column", reader.error);
+        assertTrue(reader.next());
+        assertEquals("expected row", reader.error);
+        assertTrue(reader.next());
+        assertNull(reader.error);
+        assertEquals(6, reader.col);
+        assertFalse(reader.next());
+    }
+}
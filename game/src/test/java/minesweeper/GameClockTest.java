@@ -0,0 +1,45 @@
+package minesweeper;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class GameClockTest {
+    @Test
+    void startWhileRunningRestartsFromZero() throws InterruptedException {
+        GameClock clock = new GameClock();
+        clock.start();
+        Thread.sleep(200);
+        clock.start();
+        assertTrue(clock.isRunning());
+        assertTrue(clock.getElapsedMillis() < 100, clock.getElapsedMillis() + " ms");
+    }
+
+    @Test
+    void resumeContinuesFromStop() throws InterruptedException {
+        GameClock clock = new GameClock();
+        clock.start();
+        Thread.sleep(50);
+        clock.stop();
+        long stopped = clock.getElapsedMillis();
+        assertTrue(stopped >= 50, stopped + " ms");
+        Thread.sleep(200);
+        assertEquals(stopped, clock.getElapsedMillis());
+        clock.resume();
+        long resumed = clock.getElapsedMillis();
+        assertTrue(resumed >= stopped && resumed < stopped + 100, resumed + " ms after stopping at " + stopped);
+    }
+
+    @Test
+    void setElapsedThenResume() {
+        GameClock clock = new GameClock();
+        clock.setElapsedMillis(83_042);
+        assertFalse(clock.isRunning());
+        assertEquals(83_042, clock.getElapsedMillis());
+        clock.resume();
+        long elapsed = clock.getElapsedMillis();
+        assertTrue(elapsed >= 83_042 && elapsed < 83_142, elapsed + " ms");
+        clock.start();
+        assertTrue(clock.getElapsedMillis() < 100);
+    }
+}
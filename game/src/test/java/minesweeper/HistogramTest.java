@@ -0,0 +1,41 @@
+package minesweeper;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+class HistogramTest {
+    @Test
+    void percentilesAreWithinOneSixteenth() {
+        SplittableRandom rng = new SplittableRandom(5);
+        Simulator.Histogram histogram = new Simulator.Histogram();
+        long[] samples = new long[100_000];
+        for (int i = 0; i < samples.length; i++) {
+            samples[i] = (long) Math.exp(rng.nextDouble(5, 20)); // 150 ns to 0.5 s
+            histogram.record(samples[i]);
+        }
+        Arrays.sort(samples);
+        for (double q : new double[] {0.5, 0.9, 0.99, 0.999}) {
+            long exact = samples[(int) Math.ceil(q * samples.length) - 1];
+            long reported = histogram.percentile(q);
+            assertTrue(reported >= exact && reported <= exact + exact / 16 + 1, q + ": " + reported + " vs " + exact);
+        }
+        assertEquals(samples[samples.length - 1], histogram.percentile(1.0));
+    }
+
+    @Test
+    void smallAndHugeValues() {
+        Simulator.Histogram histogram = new Simulator.Histogram();
+        histogram.record(0);
+        histogram.record(3);
+        histogram.record(Long.MAX_VALUE);
+        assertEquals(0, histogram.percentile(0.3));
+        assertEquals(3, histogram.percentile(0.6));
+        assertEquals(Long.MAX_VALUE, histogram.percentile(1.0));
+        histogram.reset();
+        assertEquals(0, histogram.count);
+        assertEquals(0, histogram.percentile(0.99));
+    }
+}
@@ -0,0 +1,47 @@
+package minesweeper;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import org.junit.jupiter.api.Test;
+
+class ProtocolTest {
+    @Test
+    void clientFramesAreSmall() {
+        ByteBuffer newGame = Protocol.newGame(16, 30, 99, 1);
+        assertEquals(4 + Protocol.MAX_CLIENT_FRAME, newGame.remaining());
+        assertNotNull(Protocol.nextFrame(newGame, Protocol.MAX_CLIENT_FRAME));
+
+        ByteBuffer oversized = ByteBuffer.allocate(8).putInt(Protocol.MAX_CLIENT_FRAME + 1).flip();
+        assertThrows(IllegalArgumentException.class, () -> Protocol.nextFrame(oversized, Protocol.MAX_CLIENT_FRAME));
+        assertNull(Protocol.nextFrame(oversized.rewind(), Protocol.MAX_FRAME)); // fine for a snapshot, just incomplete
+    }
+
+    // the server hangs up on a frame longer than any client message instead of buffering it
+    @Test
+    void serverDropsOversizedFrame() throws IOException {
+        try (GameServer server = new GameServer(0)) {
+            Thread thread = new Thread(server, "game-server");
+            thread.setDaemon(true);
+            thread.start();
+            try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort())) {
+                socket.setSoTimeout(5000);
+                OutputStream out = socket.getOutputStream();
+                out.write(ByteBuffer.allocate(4).putInt(1 << 20).array());
+                out.write(new byte[4096]);
+                out.flush();
+                InputStream in = socket.getInputStream();
+                try {
+                    assertEquals(-1, in.read());
+                } catch (IOException reset) {
+                    // a reset also ends the session
+                }
+            }
+        }
+    }
+}